@@ -0,0 +1,56 @@
+package ro.marioenache.enhancedsummon.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.marioenache.enhancedsummon.templates.ItemPayloadReader;
+import ro.marioenache.enhancedsummon.templates.ItemSpec;
+import ro.marioenache.enhancedsummon.templates.TemplateCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading item payloads in the components format and in the legacy tag format
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemPayloadBenchmark {
+
+    private static final String COMPONENTS = "{\"id\":\"minecraft:diamond_sword\",\"count\":1,\"components\":{" +
+            "\"custom_name\":\"{\\\"text\\\":\\\"Excalibur\\\",\\\"color\\\":\\\"gold\\\"}\"," +
+            "\"enchantments\":{\"levels\":{\"minecraft:sharpness\":5,\"minecraft:unbreaking\":3},\"show_in_tooltip\":false}}}";
+
+    private static final String LEGACY_TAG = "{Item:{id:\"minecraft:diamond_sword\",Count:1b,tag:{" +
+            "display:{Name:'{\"text\":\"Excalibur\",\"color\":\"gold\"}',Lore:['{\"text\":\"Line one\"}','{\"text\":\"Line two\"}']}," +
+            "Enchantments:[{id:\"minecraft:sharpness\",lvl:5s},{id:\"minecraft:unbreaking\",lvl:3s}],HideFlags:1,Unbreakable:1b}}}";
+
+    private final ItemPayloadReader reader = new ItemPayloadReader();
+
+    @Benchmark
+    public ItemSpec componentsFormat() {
+        return reader.read(COMPONENTS);
+    }
+
+    @Benchmark
+    public ItemSpec legacyTagFormat() {
+        return reader.read(LEGACY_TAG);
+    }
+
+    /**
+     * Cost of building the template cache key, paid on every summon with a payload
+     */
+    @Benchmark
+    public String normalizeCacheKey() {
+        return TemplateCache.normalize(LEGACY_TAG);
+    }
+}
@@ -0,0 +1,79 @@
+package ro.marioenache.enhancedsummon.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.marioenache.enhancedsummon.utils.KeyIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enchantment and material id lookups. The registry needs a running server, so the index is
+ * built from the vanilla enchantment ids with stub values, which is what the lookup cost depends on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyLookupBenchmark {
+
+    private static final List<String> ENCHANTMENTS = List.of(
+            "protection", "fire_protection", "feather_falling", "blast_protection", "projectile_protection",
+            "respiration", "aqua_affinity", "thorns", "depth_strider", "frost_walker", "binding_curse",
+            "sharpness", "smite", "bane_of_arthropods", "knockback", "fire_aspect", "looting", "sweeping_edge",
+            "efficiency", "silk_touch", "unbreaking", "fortune", "power", "punch", "flame", "infinity",
+            "luck_of_the_sea", "lure", "loyalty", "impaling", "riptide", "channeling", "multishot",
+            "quick_charge", "piercing", "mending", "vanishing_curse", "soul_speed", "swift_sneak",
+            "density", "breach", "wind_burst");
+
+    private KeyIndex<Object> index;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> byKey = new HashMap<>();
+        for (String key : ENCHANTMENTS) {
+            Object stub = new Object();
+            byKey.put(key, stub);
+            byKey.put("minecraft:" + key, stub);
+        }
+        index = new KeyIndex<>(byKey);
+    }
+
+    @Benchmark
+    public Object namespacedId() {
+        return index.get("minecraft:sharpness");
+    }
+
+    @Benchmark
+    public Object bareId() {
+        return index.get("unbreaking");
+    }
+
+    /**
+     * Spellings that need normalizing, answered from the normalized lookup cache after the first call
+     */
+    @Benchmark
+    public Object mixedCaseId() {
+        return index.get("Minecraft:Fire_Aspect");
+    }
+
+    /**
+     * Unknown ids, answered from the negative cache after the first call
+     */
+    @Benchmark
+    public Object unknownId() {
+        return index.get("minecraft:not_an_enchantment");
+    }
+}
@@ -0,0 +1,128 @@
+package ro.marioenache.enhancedsummon.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.marioenache.enhancedsummon.utils.PrefixIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab completion prefix matching over item ids. Material needs the server API at runtime, so the
+ * ids are composed from the families that make up most of the item registry: about 900 ids with
+ * the same long shared prefixes, such as the sixteen colors and the wood and tool tiers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefixIndexBenchmark {
+
+    private static final List<String> COLORS = List.of(
+            "white", "orange", "magenta", "light_blue", "yellow", "lime", "pink", "gray",
+            "light_gray", "cyan", "purple", "blue", "brown", "green", "red", "black");
+    private static final List<String> WOODS = List.of(
+            "oak", "spruce", "birch", "jungle", "acacia", "dark_oak", "mangrove", "cherry", "bamboo", "crimson", "warped");
+    private static final List<String> STONES = List.of(
+            "stone", "cobblestone", "mossy_cobblestone", "smooth_stone", "sandstone", "smooth_sandstone",
+            "red_sandstone", "smooth_red_sandstone", "granite", "polished_granite", "diorite", "polished_diorite",
+            "andesite", "polished_andesite", "cobbled_deepslate", "polished_deepslate", "deepslate_brick",
+            "deepslate_tile", "blackstone", "polished_blackstone", "polished_blackstone_brick", "brick",
+            "stone_brick", "mossy_stone_brick", "nether_brick", "red_nether_brick", "end_stone_brick", "prismarine",
+            "prismarine_brick", "dark_prismarine", "purpur", "quartz", "smooth_quartz", "mud_brick", "tuff",
+            "polished_tuff", "tuff_brick");
+    private static final List<String> ORES = List.of(
+            "coal", "iron", "copper", "gold", "redstone", "emerald", "lapis", "diamond");
+    private static final List<String> MOBS = List.of(
+            "allay", "armadillo", "axolotl", "bat", "bee", "blaze", "bogged", "breeze", "camel", "cat", "cave_spider",
+            "chicken", "cod", "cow", "creeper", "dolphin", "donkey", "drowned", "elder_guardian", "ender_dragon",
+            "enderman", "endermite", "evoker", "fox", "frog", "ghast", "glow_squid", "goat", "guardian", "hoglin",
+            "horse", "husk", "iron_golem", "llama", "magma_cube", "mooshroom", "mule", "ocelot", "panda", "parrot",
+            "phantom", "pig", "piglin", "piglin_brute", "pillager", "polar_bear", "pufferfish", "rabbit", "ravager",
+            "salmon", "sheep", "shulker", "silverfish", "skeleton", "skeleton_horse", "slime", "sniffer", "snow_golem",
+            "spider", "squid", "stray", "strider", "tadpole", "trader_llama", "tropical_fish", "turtle", "vex",
+            "villager", "vindicator", "wandering_trader", "warden", "witch", "wither", "wither_skeleton", "wolf",
+            "zoglin", "zombie", "zombie_horse", "zombie_villager", "zombified_piglin");
+    private static final List<String> OTHER_ITEMS = List.of(
+            "diamond", "emerald", "netherite_ingot", "netherite_scrap", "iron_ingot", "gold_ingot", "copper_ingot",
+            "raw_iron", "raw_gold", "raw_copper", "coal", "charcoal", "stick", "bow", "crossbow", "trident", "mace",
+            "shield", "elytra", "totem_of_undying", "ender_pearl", "ender_eye", "blaze_rod", "blaze_powder",
+            "dirt", "coarse_dirt", "grass_block", "podzol", "mycelium", "sand", "red_sand", "gravel", "clay",
+            "glass", "glass_pane", "obsidian", "crying_obsidian", "netherrack", "soul_sand", "soul_soil", "end_stone",
+            "torch", "soul_torch", "lantern", "soul_lantern", "chest", "trapped_chest", "barrel", "furnace",
+            "blast_furnace", "smoker", "crafting_table", "anvil", "enchanting_table", "beacon", "hopper", "dropper",
+            "dispenser", "observer", "piston", "sticky_piston", "redstone", "repeater", "comparator", "lever",
+            "bread", "apple", "golden_apple", "enchanted_golden_apple", "carrot", "golden_carrot", "potato",
+            "baked_potato", "cooked_beef", "cooked_porkchop", "cooked_chicken", "cooked_mutton", "cake", "cookie");
+
+    @Param({"", "d", "diamond_", "netherite_sw", "zzz"})
+    public String prefix;
+
+    private PrefixIndex index;
+
+    @Setup
+    public void setup() {
+        List<String> names = new ArrayList<>(OTHER_ITEMS);
+        addAll(names, COLORS, "wool", "carpet", "terracotta", "glazed_terracotta", "concrete", "concrete_powder",
+                "stained_glass", "stained_glass_pane", "shulker_box", "bed", "candle", "banner", "dye");
+        addAll(names, WOODS, "planks", "log", "wood", "slab", "stairs", "fence", "fence_gate", "door", "trapdoor",
+                "button", "pressure_plate", "sign", "hanging_sign", "boat", "chest_boat", "sapling", "leaves");
+        for (String wood : WOODS) {
+            names.add("stripped_" + wood + "_log");
+            names.add("stripped_" + wood + "_wood");
+        }
+        addAll(names, List.of("wooden", "stone", "iron", "golden", "diamond", "netherite"), "sword", "pickaxe", "axe", "shovel", "hoe");
+        addAll(names, List.of("leather", "chainmail", "iron", "golden", "diamond", "netherite"), "helmet", "chestplate", "leggings", "boots");
+        addAll(names, List.of("iron", "golden", "diamond", "leather"), "horse_armor");
+        addAll(names, STONES, "slab", "stairs", "wall");
+        names.addAll(STONES);
+        addAll(names, ORES, "ore");
+        for (String ore : ORES) {
+            names.add("deepslate_" + ore + "_ore");
+            names.add(ore + "_block");
+        }
+        for (String waxed : List.of("", "waxed_")) {
+            for (String age : List.of("", "exposed_", "weathered_", "oxidized_")) {
+                for (String kind : List.of("cut_copper", "cut_copper_slab", "cut_copper_stairs", "chiseled_copper",
+                        "copper_door", "copper_trapdoor", "copper_grate", "copper_bulb")) {
+                    names.add(waxed + age + kind);
+                }
+            }
+        }
+        addAll(names, MOBS, "spawn_egg");
+        index = new PrefixIndex(names);
+    }
+
+    private static void addAll(List<String> names, List<String> prefixes, String... suffixes) {
+        for (String prefix : prefixes) {
+            for (String suffix : suffixes) {
+                names.add(prefix + "_" + suffix);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> complete() {
+        return index.complete(prefix);
+    }
+
+    /**
+     * Completing a key inside a JSON payload, which wraps every candidate
+     */
+    @Benchmark
+    public List<String> completeWrapped() {
+        return index.complete(prefix, "{\"id\":\"", "\"");
+    }
+}
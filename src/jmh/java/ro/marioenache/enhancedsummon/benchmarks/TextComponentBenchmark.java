@@ -0,0 +1,58 @@
+package ro.marioenache.enhancedsummon.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.marioenache.enhancedsummon.utils.TextComponentParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning text component JSON into Adventure components, with and without the memo cache
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextComponentBenchmark {
+
+    @Param({
+            "\"Plain name\"",
+            "§cRed §lbold name",
+            "{\"text\":\"Guard\",\"color\":\"red\",\"bold\":true}",
+            "[{\"text\":\"Legendary \",\"color\":\"#ffaa00\"},{\"text\":\"Sword\",\"italic\":false,\"extra\":[{\"translate\":\"item.minecraft.diamond_sword\"}]}]"
+    })
+    public String text;
+
+    private TextComponentParser parser;
+
+    @Setup
+    public void setup() {
+        parser = new TextComponentParser();
+        parser.parse(text);
+    }
+
+    @Benchmark
+    public Component memoized() {
+        return parser.parse(text);
+    }
+
+    /**
+     * A fresh parser per call, so every call deserializes, as every summon did before memoizing
+     */
+    @Benchmark
+    public Component uncached() {
+        return new TextComponentParser(1).parse(text);
+    }
+}
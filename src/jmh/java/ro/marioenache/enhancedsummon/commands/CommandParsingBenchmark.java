@@ -0,0 +1,48 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinate parsing and locating the cursor in a partially typed JSON payload.
+ * Lives in the commands package to reach the package-private parsers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommandParsingBenchmark {
+
+    private static final String PARTIAL_JSON = "{\"id\":\"minecraft:diamond_sword\",\"components\":{\"enchantments\":{\"levels\":{\"minecraft:sha";
+
+    @Benchmark
+    public double absoluteCoordinate() {
+        return SummonCommandExecutor.parseCoordinate("-1234.5", 0);
+    }
+
+    @Benchmark
+    public double relativeCoordinate() {
+        return SummonCommandExecutor.parseCoordinate("~12.25", 100);
+    }
+
+    @Benchmark
+    public double currentCoordinate() {
+        return SummonCommandExecutor.parseCoordinate("~", 100);
+    }
+
+    @Benchmark
+    public JsonCursor jsonCursor() {
+        return JsonCursor.of(PARTIAL_JSON);
+    }
+}
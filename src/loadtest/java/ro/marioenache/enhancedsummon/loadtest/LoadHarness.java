@@ -0,0 +1,343 @@
+package ro.marioenache.enhancedsummon.loadtest;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.command.ConsoleCommandSenderMock;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.bukkit.World;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Entity;
+import ro.marioenache.enhancedsummon.EnhancedSummonPlugin;
+import ro.marioenache.enhancedsummon.commands.SummonCommandExecutor;
+import ro.marioenache.enhancedsummon.metrics.LatencyHistogram;
+import ro.marioenache.enhancedsummon.metrics.SummonMetrics;
+import ro.marioenache.enhancedsummon.scheduling.SpawnQueue;
+import ro.marioenache.enhancedsummon.scheduling.SummonExecutor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives /esummon through an in-process mock server at fixed summon rates and records
+ * what that costs the main thread. For every rate it submits a mix of entity and item
+ * summons for the configured number of seconds, ticking the server every 50 ms, then
+ * keeps ticking until the queue is empty. The report is written as JSON so runs of
+ * different releases can be compared.
+ *
+ * Arguments are key=value pairs:
+ * rates=100,1000,10000 seconds=10 items=0.3 chunks=64 report=target/loadtest-report.json
+ */
+public class LoadHarness {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    // Gives up on draining the queue after this many ticks, so a stuck queue still produces a report
+    private static final int MAX_DRAIN_TICKS = 20 * 60;
+
+    private static final String[] ENTITY_PAYLOADS = {
+            null,
+            "{\"CustomName\":\"{\\\"text\\\":\\\"Load\\\",\\\"color\\\":\\\"red\\\"}\",\"NoAI\":true}",
+            "{\"components\":{\"custom_name\":\"Guard\",\"glowing\":true},\"Silent\":true,\"PersistenceRequired\":true}"
+    };
+    private static final String[] ENTITY_TYPES = {"zombie", "skeleton", "cow"};
+    private static final String[] ITEM_PAYLOADS = {
+            "{\"id\":\"minecraft:diamond_sword\",\"count\":1,\"components\":{\"enchantments\":{\"levels\":{\"minecraft:sharpness\":5}}}}",
+            "{\"Item\":{\"id\":\"minecraft:golden_apple\",\"Count\":16b,\"tag\":{\"display\":{\"Name\":\"{\\\"text\\\":\\\"Snack\\\"}\"}}}}",
+            "{\"id\":\"minecraft:stone\",\"count\":64}"
+    };
+
+    private final int[] rates;
+    private final int seconds;
+    private final double itemShare;
+    private final int chunks;
+    private final Path reportFile;
+
+    private ServerMock server;
+    private World world;
+    private ConsoleCommandSenderMock sender;
+    private PluginCommand command;
+    private SummonCommandExecutor executor;
+    private long summons;
+
+    private LoadHarness(int[] rates, int seconds, double itemShare, int chunks, Path reportFile) {
+        this.rates = rates;
+        this.seconds = seconds;
+        this.itemShare = itemShare;
+        this.chunks = chunks;
+        this.reportFile = reportFile;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String rates = "100,1000,10000";
+        int seconds = 10;
+        double items = 0.3;
+        int chunks = 64;
+        String report = "target/loadtest-report.json";
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                throw new IllegalArgumentException("Arguments are key=value pairs, got " + arg);
+            }
+            String value = arg.substring(split + 1);
+            switch (arg.substring(0, split).toLowerCase(Locale.ROOT)) {
+                case "rates":
+                    rates = value;
+                    break;
+                case "seconds":
+                    seconds = Integer.parseInt(value);
+                    break;
+                case "items":
+                    items = Double.parseDouble(value);
+                    break;
+                case "chunks":
+                    chunks = Integer.parseInt(value);
+                    break;
+                case "report":
+                    report = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        String[] parts = rates.split(",");
+        int[] parsedRates = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsedRates[i] = Integer.parseInt(parts[i].trim());
+        }
+
+        new LoadHarness(parsedRates, seconds, items, Math.max(1, chunks), Paths.get(report)).run();
+    }
+
+    private void run() throws IOException {
+        server = MockBukkit.mock();
+        try {
+            EnhancedSummonPlugin plugin = MockBukkit.load(EnhancedSummonPlugin.class);
+
+            // The harness measures spawning, not the admission caps, so switch them off and
+            // re-enable the plugin for the spawn queue to pick that up
+            server.getPluginManager().disablePlugin(plugin);
+            plugin.getConfig().set("limits.per-chunk", 0);
+            plugin.getConfig().set("limits.per-world", 0);
+            plugin.getConfig().set("limits.per-window", 0);
+            server.getPluginManager().enablePlugin(plugin);
+
+            world = server.addSimpleWorld("world");
+            sender = server.getConsoleSender();
+            command = plugin.getCommand("esummon");
+            executor = plugin.getSummonCommandExecutor();
+
+            JsonArray results = new JsonArray();
+            for (int rate : rates) {
+                JsonObject result = runRate(rate);
+                results.add(result);
+                System.out.println(summarize(result));
+            }
+
+            JsonObject report = new JsonObject();
+            report.addProperty("plugin", plugin.getDescription().getVersion());
+            report.addProperty("java", System.getProperty("java.version"));
+            report.addProperty("seconds", seconds);
+            report.addProperty("itemShare", itemShare);
+            report.addProperty("chunks", chunks);
+            report.add("rates", results);
+            writeReport(report);
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+
+    private JsonObject runRate(int rate) {
+        SpawnQueue spawnQueue = executor.getSpawnQueue();
+        SummonExecutor summonExecutor = executor.getSummonExecutor();
+        SummonMetrics metrics = spawnQueue.getMetrics();
+
+        // Start every rate from an empty world and fresh counters
+        for (Entity entity : new ArrayList<>(world.getEntities())) {
+            entity.remove();
+        }
+        metrics.reset();
+        long rejectedBefore = summonExecutor.getRejected();
+
+        LatencyHistogram tickTimes = new LatencyHistogram();
+        QueueDepth pendingJobs = new QueueDepth();
+        QueueDepth queuedJobs = new QueueDepth();
+        QueueDepth pendingChunks = new QueueDepth();
+        QueueDepth executorQueue = new QueueDepth();
+
+        int loadTicks = seconds * 20;
+        double perTick = rate / 20.0;
+        double owed = 0;
+        long submitted = 0;
+        int drainTicks = 0;
+        long nextTick = System.nanoTime();
+
+        for (int tick = 0; tick < loadTicks + MAX_DRAIN_TICKS; tick++) {
+            boolean loading = tick < loadTicks;
+            if (loading) {
+                owed += perTick;
+                for (; owed >= 1; owed--) {
+                    String[] args = nextSummon();
+                    executor.onCommand(sender, command, "esummon", args);
+                    submitted++;
+                }
+            } else if (spawnQueue.getPendingJobs() == 0 && spawnQueue.getQueuedJobs() == 0
+                    && summonExecutor.getQueueDepth() == 0 && summonExecutor.getActiveWorkers() == 0) {
+                break;
+            } else {
+                drainTicks++;
+            }
+
+            // Wait for the tick to be due, so the workers parse in real time as they would on a server
+            nextTick += TICK_NANOS;
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            long start = System.nanoTime();
+            server.getScheduler().performOneTick();
+            tickTimes.record(System.nanoTime() - start);
+
+            pendingJobs.sample(spawnQueue.getPendingJobs());
+            queuedJobs.sample(spawnQueue.getQueuedJobs());
+            pendingChunks.sample(spawnQueue.getPendingChunks());
+            executorQueue.sample(summonExecutor.getQueueDepth());
+
+            // Feedback is not checked, only kept from piling up
+            while (sender.nextMessage() != null) {
+                // discard
+            }
+        }
+
+        long spawned = 0;
+        long failed = 0;
+        for (long[] counts : metrics.getTypeCounts().values()) {
+            spawned += counts[0];
+            failed += counts[1];
+        }
+
+        JsonObject result = new JsonObject();
+        result.addProperty("rate", rate);
+        result.addProperty("submitted", submitted);
+        result.addProperty("spawned", spawned);
+        result.addProperty("failed", failed);
+        result.addProperty("rejectedBusy", summonExecutor.getRejected() - rejectedBefore);
+        result.addProperty("drainTicks", drainTicks);
+        result.add("tickMillis", toJson(tickTimes));
+        JsonObject queues = new JsonObject();
+        queues.add("incomingJobs", pendingJobs.toJson());
+        queues.add("chunkGroupJobs", queuedJobs.toJson());
+        queues.add("pendingChunks", pendingChunks.toJson());
+        queues.add("executorQueue", executorQueue.toJson());
+        result.add("queues", queues);
+        JsonObject stages = new JsonObject();
+        for (SummonMetrics.Stage stage : SummonMetrics.Stage.values()) {
+            stages.add(stage.name().toLowerCase(Locale.ROOT), toJson(metrics.getHistogram(stage)));
+        }
+        result.add("stageMillis", stages);
+        return result;
+    }
+
+    /**
+     * Builds the arguments of the next summon, cycling through the payloads and target chunks
+     */
+    private String[] nextSummon() {
+        long n = summons++;
+        int chunk = (int) (n % chunks);
+        int side = (int) Math.ceil(Math.sqrt(chunks));
+        double x = (chunk % side) * 16 + 8.5;
+        double z = (chunk / side) * 16 + 8.5;
+
+        // Spread item summons evenly through the stream
+        boolean item = Math.floor((n + 1) * itemShare) > Math.floor(n * itemShare);
+        List<String> args = new ArrayList<>();
+        String payload;
+        if (item) {
+            args.add("item");
+            payload = ITEM_PAYLOADS[(int) (n % ITEM_PAYLOADS.length)];
+        } else {
+            args.add(ENTITY_TYPES[(int) (n % ENTITY_TYPES.length)]);
+            payload = ENTITY_PAYLOADS[(int) (n % ENTITY_PAYLOADS.length)];
+        }
+        args.add(world.getName());
+        args.add(Double.toString(x));
+        args.add("64");
+        args.add(Double.toString(z));
+        if (payload != null) {
+            args.add(payload);
+        }
+        return args.toArray(new String[0]);
+    }
+
+    private void writeReport(JsonObject report) throws IOException {
+        Path parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            gson.toJson(report, writer);
+        }
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static String summarize(JsonObject result) {
+        JsonObject ticks = result.getAsJsonObject("tickMillis");
+        JsonObject endToEnd = result.getAsJsonObject("stageMillis").getAsJsonObject("end_to_end");
+        return String.format(Locale.ROOT, "%6d/s: %d spawned, %d failed, %d busy; tick p50 %.2f p99 %.2f max %.2f ms; end to end p99 %.2f ms",
+                result.get("rate").getAsInt(), result.get("spawned").getAsLong(), result.get("failed").getAsLong(),
+                result.get("rejectedBusy").getAsLong(), ticks.get("p50").getAsDouble(), ticks.get("p99").getAsDouble(),
+                ticks.get("max").getAsDouble(), endToEnd.get("p99").getAsDouble());
+    }
+
+    private static JsonObject toJson(LatencyHistogram histogram) {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", histogram.getCount());
+        json.addProperty("mean", toMillis(histogram.getMean()));
+        json.addProperty("p50", toMillis(histogram.getPercentile(50)));
+        json.addProperty("p90", toMillis(histogram.getPercentile(90)));
+        json.addProperty("p99", toMillis(histogram.getPercentile(99)));
+        json.addProperty("max", toMillis(histogram.getMax()));
+        return json;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    /**
+     * Largest and average value of a queue depth sampled once per tick
+     */
+    private static class QueueDepth {
+
+        private long samples;
+        private long total;
+        private int max;
+
+        private void sample(int depth) {
+            samples++;
+            total += depth;
+            max = Math.max(max, depth);
+        }
+
+        private JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("max", max);
+            json.addProperty("mean", samples > 0 ? Math.round(total * 10.0 / samples) / 10.0 : 0);
+            return json;
+        }
+    }
+}
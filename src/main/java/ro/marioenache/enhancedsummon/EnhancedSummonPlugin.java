@@ -1,24 +1,73 @@
 package ro.marioenache.enhancedsummon;
 
+import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.api.SummonService;
+import ro.marioenache.enhancedsummon.commands.AsyncSummonTabCompleter;
 import ro.marioenache.enhancedsummon.commands.SummonCommandExecutor;
 import ro.marioenache.enhancedsummon.commands.SummonTabCompleter;
+import ro.marioenache.enhancedsummon.properties.EntityPropertyRegistry;
+import ro.marioenache.enhancedsummon.utils.EnchantmentMapper;
+import ro.marioenache.enhancedsummon.utils.TextComponentParser;
 
 public class EnhancedSummonPlugin extends JavaPlugin {
     
+    private final EntityPropertyRegistry propertyRegistry = new EntityPropertyRegistry();
+    private EnchantmentMapper enchantmentMapper;
+    private SummonCommandExecutor summonCommandExecutor;
+    
     @Override
     public void onEnable() {
         getLogger().info("EnhancedSummon has been enabled!");
         
+        // Write the default config on first run
+        saveDefaultConfig();
+        
+        // Index the registered enchantments, and again whenever datapacks are reloaded
+        enchantmentMapper = new EnchantmentMapper();
+        getServer().getPluginManager().registerEvents(enchantmentMapper, this);
+        
+        // Size the text memo shared by entity names and item names and lore
+        TextComponentParser.shared().setCacheSize(getConfig().getInt("cache.text-components", 512));
+        
         // Register command executor
-        getCommand("esummon").setExecutor(new SummonCommandExecutor(this));
+        summonCommandExecutor = new SummonCommandExecutor(this, propertyRegistry, enchantmentMapper);
+        getCommand("esummon").setExecutor(summonCommandExecutor);
+        
+        // Let other plugins summon without dispatching command strings
+        getServer().getServicesManager().register(SummonService.class, summonCommandExecutor.getSummonService(), this, ServicePriority.Normal);
         
         // Optionally register command tab completer for better user experience
-        getCommand("esummon").setTabCompleter(new SummonTabCompleter());
+        PluginCommand command = getCommand("esummon");
+        SummonTabCompleter tabCompleter = new SummonTabCompleter(propertyRegistry, enchantmentMapper,
+                summonCommandExecutor.getImportCommand(), summonCommandExecutor.getPresetCommand());
+        command.setTabCompleter(tabCompleter);
+        getServer().getPluginManager().registerEvents(tabCompleter, this);
+        
+        // Complete off the main thread; the synchronous completer stays for completions Paper does not run async
+        getServer().getPluginManager().registerEvents(new AsyncSummonTabCompleter(command, tabCompleter), this);
     }
     
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+        if (summonCommandExecutor != null) {
+            summonCommandExecutor.shutdown();
+        }
+        
         getLogger().info("EnhancedSummon has been disabled!");
     }
+    
+    /**
+     * Registry of the JSON keys supported on summoned entities. Other plugins can
+     * register additional properties through it.
+     */
+    public EntityPropertyRegistry getPropertyRegistry() {
+        return propertyRegistry;
+    }
+    
+    public SummonCommandExecutor getSummonCommandExecutor() {
+        return summonCommandExecutor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ro.marioenache.enhancedsummon.api;
+
+/**
+ * How spawn locations are adjusted before spawning. Chosen with place= on the command and
+ * {@link SummonRequest#placement(Placement, int)} through the API.
+ */
+public enum Placement {
+    /** Spawn at exactly the given coordinates */
+    EXACT,
+    /** Keep the coordinates if the entity fits there, otherwise move to the nearest spot where it can stand */
+    SAFE,
+    /** Stand on the highest block of the nearest column where the entity fits */
+    SURFACE
+}
@@ -0,0 +1,96 @@
+package ro.marioenache.enhancedsummon.api;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.commands.SummonOptions;
+import ro.marioenache.enhancedsummon.handlers.CompileFeedback;
+import ro.marioenache.enhancedsummon.handlers.EntityHandler;
+import ro.marioenache.enhancedsummon.handlers.ItemHandler;
+import ro.marioenache.enhancedsummon.scheduling.SpawnPlanner;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The {@link SummonService} registered by the plugin. Payloads are compiled through the same
+ * handlers as the command and summons go through the same planner and spawn queue.
+ */
+public class QueuedSummonService implements SummonService {
+
+    private final JavaPlugin plugin;
+    private final SpawnPlanner spawnPlanner;
+    private final EntityHandler entityHandler;
+    private final ItemHandler itemHandler;
+    private final Executor summonExecutor;
+
+    public QueuedSummonService(JavaPlugin plugin, SpawnPlanner spawnPlanner, EntityHandler entityHandler, ItemHandler itemHandler,
+                               Executor summonExecutor) {
+        this.plugin = plugin;
+        this.summonExecutor = summonExecutor;
+        this.spawnPlanner = spawnPlanner;
+        this.entityHandler = entityHandler;
+        this.itemHandler = itemHandler;
+    }
+
+    @Override
+    public SummonTemplate compile(EntityType type, String json) {
+        String payload = json == null || json.isEmpty() ? null : json;
+        List<String> errors = new ArrayList<>();
+        CompileFeedback feedback = new CompileFeedback() {
+            @Override
+            public void warning(String message) {
+                plugin.getLogger().warning("Summon requested through the API: " + message);
+            }
+
+            @Override
+            public void error(String message) {
+                errors.add(message);
+            }
+        };
+        SummonTemplate template = type == EntityType.ITEM
+                ? itemHandler.getTemplate(payload, feedback)
+                : entityHandler.getTemplate(type, payload, feedback);
+        // Entity payloads that fail to compile fall back to a plain entity, which is not what was asked for.
+        // Items only fail as a whole; a broken tag is logged by the handler and the rest of the item is kept.
+        if (template == null || (type != EntityType.ITEM && !errors.isEmpty())) {
+            throw new IllegalArgumentException(errors.isEmpty() ? "Invalid " + type + " payload" : String.join("; ", errors));
+        }
+        return template;
+    }
+
+    @Override
+    public CompletableFuture<List<Entity>> summon(SummonRequest request) {
+        for (Location location : request.getLocations()) {
+            if (location.getWorld() == null) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Summon locations need a world"));
+            }
+        }
+
+        int maxCount = plugin.getConfig().getInt("spawning.max-count", 10000);
+        if ((long) request.getCount() * request.getLocations().size() > maxCount) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("A summon cannot spawn more than " + maxCount + " entities"));
+        }
+
+        // Payloads compile on the summon workers like command payloads, so an uncached one never costs the caller's tick
+        CompletableFuture<SummonTemplate> template;
+        if (request.getTemplate() != null) {
+            template = CompletableFuture.completedFuture(request.getTemplate());
+        } else {
+            try {
+                template = CompletableFuture.supplyAsync(() -> compile(request.getType(), request.getJson()), summonExecutor);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        SummonOptions options = SummonOptions.of(request.getCount(), request.getSpread(), request.getPlacement(), request.getRadius());
+        List<Location> locations = request.getLocations();
+        return template.thenCompose(compiled -> spawnPlanner.summon(compiled, locations, options));
+    }
+}
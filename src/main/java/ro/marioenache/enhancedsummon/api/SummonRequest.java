@@ -0,0 +1,135 @@
+package ro.marioenache.enhancedsummon.api;
+
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What to summon and where, for {@link SummonService#summon(SummonRequest)}. Either an entity
+ * type with an optional JSON payload, or a template from {@link SummonService#compile(EntityType, String)}.
+ * The setters mirror the flags of the command and return the request for chaining.
+ */
+public class SummonRequest {
+
+    private final EntityType type;
+    private final SummonTemplate template;
+    private final List<Location> locations;
+    private String json;
+    private int count = 1;
+    private double spread = 0;
+    private Placement placement = Placement.EXACT;
+    private int radius = -1;
+
+    public SummonRequest(EntityType type, Location location) {
+        this(type, Collections.singletonList(location));
+    }
+
+    /**
+     * Summons at every one of the given locations, as one batch
+     */
+    public SummonRequest(EntityType type, List<Location> locations) {
+        this(type, null, locations);
+    }
+
+    public SummonRequest(SummonTemplate template, Location location) {
+        this(template, Collections.singletonList(location));
+    }
+
+    /**
+     * Summons the template at every one of the given locations, as one batch
+     */
+    public SummonRequest(SummonTemplate template, List<Location> locations) {
+        this(template.getEntityType(), template, locations);
+    }
+
+    private SummonRequest(EntityType type, SummonTemplate template, List<Location> locations) {
+        if (locations.isEmpty()) {
+            throw new IllegalArgumentException("A summon needs at least one location");
+        }
+        this.type = type;
+        this.template = template;
+        this.locations = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            this.locations.add(location.clone());
+        }
+    }
+
+    /**
+     * JSON payload, as accepted by /esummon. Ignored for requests made with a template.
+     */
+    public SummonRequest json(String json) {
+        this.json = json;
+        return this;
+    }
+
+    /**
+     * Copies to spawn at each location, like count=
+     */
+    public SummonRequest count(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be at least 1");
+        }
+        this.count = count;
+        return this;
+    }
+
+    /**
+     * Horizontal radius to scatter the copies in, like spread=
+     */
+    public SummonRequest spread(double spread) {
+        if (spread < 0) {
+            throw new IllegalArgumentException("Spread cannot be negative");
+        }
+        this.spread = spread;
+        return this;
+    }
+
+    /**
+     * How spawn locations are adjusted, like place= and radius=. A negative radius uses the configured default.
+     */
+    public SummonRequest placement(Placement placement, int radius) {
+        this.placement = Objects.requireNonNull(placement, "placement");
+        this.radius = radius;
+        return this;
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    /**
+     * The template this request was made with, or null if it was made with an entity type
+     */
+    public SummonTemplate getTemplate() {
+        return template;
+    }
+
+    public List<Location> getLocations() {
+        return Collections.unmodifiableList(locations);
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSpread() {
+        return spread;
+    }
+
+    public Placement getPlacement() {
+        return placement;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+}
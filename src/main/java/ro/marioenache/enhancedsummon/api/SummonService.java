@@ -0,0 +1,42 @@
+package ro.marioenache.enhancedsummon.api;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Summons entities for other plugins without going through the /esummon command. Summons use
+ * the same spawn queue, template caches, limits and statistics as the command.
+ * Get it from Bukkit's services manager:
+ * <pre>
+ * SummonService summons = Bukkit.getServicesManager().load(SummonService.class);
+ * summons.summon(new SummonRequest(EntityType.ZOMBIE, location).json("{\"CustomName\":\"Guard\"}").count(5))
+ *         .thenAccept(zombies -> ...);
+ * </pre>
+ * All methods may be called from any thread.
+ */
+public interface SummonService {
+
+    /**
+     * Compiles a JSON payload, as accepted by /esummon, into a template that can be summoned
+     * any number of times without parsing the payload again. Compiled payloads are cached, so
+     * compiling the same payload twice is cheap. Compiles on the calling thread, so call it
+     * off the main thread or ahead of time, for example while the plugin enables.
+     *
+     * @param json the payload, or null for an entity without properties
+     * @throws IllegalArgumentException if the payload cannot be used; unknown keys are only logged
+     */
+    SummonTemplate compile(EntityType type, String json);
+
+    /**
+     * Queues a summon. The future completes on the main thread with the spawned entities, which
+     * may be fewer than requested if some spawns failed, for example because of a summon limit.
+     * JSON payloads are compiled on the summon workers. The future fails if the request is invalid,
+     * if the workers are too busy to take it, if no entity could be spawned, or if the plugin
+     * is disabled before the summon finished.
+     */
+    CompletableFuture<List<Entity>> summon(SummonRequest request);
+}
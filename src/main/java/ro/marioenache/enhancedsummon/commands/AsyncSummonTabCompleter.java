@@ -0,0 +1,67 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Answers /esummon completions from Paper's async tab complete event, so they are computed
+ * off the main thread. The completer only reads immutable indexes and volatile snapshots,
+ * which makes this safe. The synchronous completer stays registered on the command for
+ * completions Paper does not route through the async event.
+ */
+public class AsyncSummonTabCompleter implements Listener {
+
+    private final PluginCommand command;
+    private final SummonTabCompleter completer;
+    private final Set<String> labels = new HashSet<>();
+
+    public AsyncSummonTabCompleter(PluginCommand command, SummonTabCompleter completer) {
+        this.command = command;
+        this.completer = completer;
+
+        String prefix = command.getPlugin().getName().toLowerCase(Locale.ROOT) + ":";
+        labels.add(command.getName().toLowerCase(Locale.ROOT));
+        for (String alias : command.getAliases()) {
+            labels.add(alias.toLowerCase(Locale.ROOT));
+        }
+        for (String label : List.copyOf(labels)) {
+            labels.add(prefix + label);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (event.isHandled() || !event.isCommand()) {
+            return;
+        }
+
+        String buffer = event.getBuffer();
+        int start = buffer.startsWith("/") ? 1 : 0;
+        int space = buffer.indexOf(' ', start);
+        if (space < 0) {
+            // Still typing the command name itself
+            return;
+        }
+
+        String label = buffer.substring(start, space);
+        if (!labels.contains(label.toLowerCase(Locale.ROOT)) || !command.testPermissionSilent(event.getSender())) {
+            return;
+        }
+
+        // Split the same way Bukkit does, keeping the empty argument after a trailing space
+        String[] args = buffer.substring(space + 1).split(" ", -1);
+        List<String> completions = completer.onTabComplete(event.getSender(), command, label, args);
+        if (completions != null) {
+            event.setCompletions(completions);
+        }
+        event.setHandled(true);
+    }
+
+}
@@ -0,0 +1,135 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntitySnapshot;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.scheduling.SpawnPlanner;
+import ro.marioenache.enhancedsummon.templates.SnapshotTemplate;
+
+import java.util.UUID;
+
+/**
+ * Handles /esummon clone, which spawns copies of an existing entity with all of its state.
+ * The entity is captured once and every copy is created from that snapshot.
+ */
+public class CloneCommand {
+
+    private static final String USAGE = "§cUsage: /esummon clone <uuid|looked-at> [count] [world] [x] [y] [z] [spread=<r>] [offset=<x,y,z>] [place=<mode>] [radius=<r>] [-q]";
+    private static final String LOOKED_AT = "looked-at";
+    // How far away the entity a player looks at may be
+    private static final int TARGET_RANGE = 32;
+
+    private final JavaPlugin plugin;
+    private final SpawnPlanner spawnPlanner;
+
+    public CloneCommand(JavaPlugin plugin, SpawnPlanner spawnPlanner) {
+        this.plugin = plugin;
+        this.spawnPlanner = spawnPlanner;
+    }
+
+    /**
+     * Runs a clone subcommand; args are the arguments after "clone". Called from a summon worker thread.
+     */
+    public void handle(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("enhancedsummon.clone")) {
+            sender.sendMessage("§cYou don't have permission to clone entities.");
+            return;
+        }
+        if (args.length < 1) {
+            sender.sendMessage(USAGE);
+            return;
+        }
+
+        // A bare number after the target is the count
+        if (args.length > 1 && isInteger(args[1])) {
+            args = args.clone();
+            args[1] = "count=" + args[1];
+        }
+
+        SummonOptions options;
+        try {
+            options = SummonOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§c" + e.getMessage());
+            return;
+        }
+        String[] remaining = options.getRemainingArgs();
+        if (remaining.length != 1 && remaining.length != 5) {
+            sender.sendMessage(USAGE);
+            return;
+        }
+
+        int maxCount = plugin.getConfig().getInt("spawning.max-count", 10000);
+        if (options.getCount() > maxCount) {
+            sender.sendMessage("§cCount cannot be larger than " + maxCount);
+            return;
+        }
+
+        UUID uuid = null;
+        if (remaining[0].equalsIgnoreCase(LOOKED_AT)) {
+            if (!(sender instanceof Player)) {
+                sender.sendMessage("§cOnly players can clone the entity they are looking at, use its UUID instead");
+                return;
+            }
+        } else {
+            try {
+                uuid = UUID.fromString(remaining[0]);
+            } catch (IllegalArgumentException e) {
+                sender.sendMessage("§cInvalid entity UUID: " + remaining[0]);
+                return;
+            }
+        }
+
+        Location location = null;
+        if (remaining.length == 5) {
+            location = SummonCommandExecutor.parseLocation(sender, remaining, 1);
+            if (location == null) {
+                return; // Error already sent to sender
+            }
+        }
+
+        // Entities can only be looked up and captured on the main thread
+        UUID target = uuid;
+        Location destination = location;
+        Bukkit.getScheduler().runTask(plugin, () -> capture(sender, target, destination, options));
+    }
+
+    private void capture(CommandSender sender, UUID uuid, Location location, SummonOptions options) {
+        Entity source = uuid != null
+                ? Bukkit.getEntity(uuid)
+                : ((Player) sender).getTargetEntity(TARGET_RANGE);
+        if (source == null || !source.isValid()) {
+            sender.sendMessage(uuid != null ? "§cNo loaded entity has the UUID " + uuid : "§cYou are not looking at an entity");
+            return;
+        }
+
+        EntitySnapshot snapshot = source.createSnapshot();
+        if (snapshot == null) {
+            sender.sendMessage("§c" + source.getType() + " cannot be cloned");
+            return;
+        }
+
+        // Without coordinates, players clone at their feet and the console next to the original
+        if (location == null) {
+            location = sender instanceof Player ? ((Player) sender).getLocation() : source.getLocation();
+        }
+
+        spawnPlanner.submit(new SnapshotTemplate(snapshot), location, options, sender);
+    }
+
+    private static boolean isInteger(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,240 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.EntityType;
+import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.handlers.CompileFeedback;
+import ro.marioenache.enhancedsummon.handlers.EntityHandler;
+import ro.marioenache.enhancedsummon.handlers.ItemHandler;
+import ro.marioenache.enhancedsummon.scheduling.ImportLineParser;
+import ro.marioenache.enhancedsummon.scheduling.ImportTask;
+import ro.marioenache.enhancedsummon.scheduling.SpawnJob;
+import ro.marioenache.enhancedsummon.scheduling.SpawnQueue;
+import ro.marioenache.enhancedsummon.scheduling.SpawnTracker;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Handles /esummon import, which spawns everything listed in a file in the plugin folder.
+ * Each line of the file is one JSON object, for example:
+ * {"entity":"zombie","world":"world","x":10,"y":64,"z":-20,"data":{"CustomName":"Guard"}}
+ */
+public class ImportCommand implements ImportLineParser {
+
+    private static final String USAGE = "§cUsage: /esummon import <file> | pause | resume | cancel";
+    // Files of the plugin itself, never offered for import
+    private static final Set<String> OWN_FILES = Set.of("config.yml", "presets.dat", "presets.dat.tmp");
+
+    private final JavaPlugin plugin;
+    private final SpawnQueue spawnQueue;
+    private final Executor parseExecutor;
+    private final EntityHandler entityHandler;
+    private final ItemHandler itemHandler;
+
+    // Only one import runs at a time
+    private volatile ImportTask activeImport;
+
+    public ImportCommand(JavaPlugin plugin, SpawnQueue spawnQueue, Executor parseExecutor,
+                         EntityHandler entityHandler, ItemHandler itemHandler) {
+        this.plugin = plugin;
+        this.spawnQueue = spawnQueue;
+        this.parseExecutor = parseExecutor;
+        this.entityHandler = entityHandler;
+        this.itemHandler = itemHandler;
+    }
+
+    /**
+     * Runs an import subcommand; args are the arguments after "import"
+     */
+    public void handle(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("enhancedsummon.import")) {
+            sender.sendMessage("§cYou don't have permission to import summons.");
+            return;
+        }
+        if (args.length != 1) {
+            sender.sendMessage(USAGE);
+            return;
+        }
+
+        ImportTask current = activeImport;
+        if (current != null && current.isFinished()) {
+            current = null;
+        }
+        switch (args[0].toLowerCase()) {
+            case "pause":
+                if (current != null) {
+                    current.pause();
+                    sender.sendMessage("§eImport of " + current.getName() + " paused");
+                } else {
+                    sender.sendMessage("§cNo import is running");
+                }
+                return;
+            case "resume":
+                if (current != null) {
+                    current.resume();
+                    sender.sendMessage("§aImport of " + current.getName() + " resumed");
+                } else {
+                    sender.sendMessage("§cNo import is running");
+                }
+                return;
+            case "cancel":
+                if (current != null) {
+                    current.cancel();
+                    activeImport = null;
+                } else {
+                    sender.sendMessage("§cNo import is running");
+                }
+                return;
+            default:
+                startImport(sender, args[0]);
+                break;
+        }
+    }
+
+    /**
+     * Names of the files in the plugin folder that can be imported, for tab completion
+     */
+    public List<String> getFileNames() {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(plugin.getDataFolder().toPath())) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!OWN_FILES.contains(name) && Files.isRegularFile(file)) {
+                    names.add(name);
+                }
+            }
+        } catch (IOException e) {
+            // A missing or unreadable plugin folder has nothing to import
+        }
+        return names;
+    }
+
+    /**
+     * Cancels the running import, if any
+     */
+    public void shutdown() {
+        ImportTask current = activeImport;
+        if (current != null) {
+            current.cancel();
+            activeImport = null;
+        }
+    }
+
+    private synchronized void startImport(CommandSender sender, String fileName) {
+        if (activeImport != null && !activeImport.isFinished()) {
+            sender.sendMessage("§cAn import of " + activeImport.getName() + " is already running, use /esummon import cancel to stop it");
+            return;
+        }
+
+        // Only files inside the plugin folder can be imported
+        Path folder = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        Path file = folder.resolve(fileName).normalize();
+        if (!file.startsWith(folder) || !Files.isRegularFile(file)) {
+            sender.sendMessage("§cImport file not found: " + fileName);
+            return;
+        }
+
+        try {
+            ImportTask task = new ImportTask(plugin, spawnQueue, parseExecutor, this, file, sender);
+            activeImport = task;
+            task.start();
+            sender.sendMessage("§7Importing " + task.getName() + "...");
+        } catch (IOException e) {
+            sender.sendMessage("§cCould not read " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses one line: entity, world and coordinates are required, data is the optional summon JSON
+     */
+    @Override
+    public SpawnJob parse(String line, CommandSender sender, SpawnTracker tracker, Consumer<String> errors) {
+        String entity = null;
+        String worldName = null;
+        Double x = null;
+        Double y = null;
+        Double z = null;
+        String data = null;
+
+        try (JsonReader reader = new JsonReader(new StringReader(line))) {
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "entity":
+                        entity = reader.nextString();
+                        break;
+                    case "world":
+                        worldName = reader.nextString();
+                        break;
+                    case "x":
+                        x = reader.nextDouble();
+                        break;
+                    case "y":
+                        y = reader.nextDouble();
+                        break;
+                    case "z":
+                        z = reader.nextDouble();
+                        break;
+                    case "data":
+                        // Either the summon JSON itself or a string holding it
+                        data = reader.peek() == JsonToken.STRING
+                                ? reader.nextString()
+                                : JsonParser.parseReader(reader).toString();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException | JsonSyntaxException e) {
+            errors.accept("Invalid JSON: " + e.getMessage());
+            return null;
+        }
+
+        if (entity == null || worldName == null || x == null || y == null || z == null) {
+            errors.accept("Each line needs entity, world, x, y and z");
+            return null;
+        }
+
+        EntityType entityType;
+        try {
+            entityType = EntityType.valueOf(entity.toUpperCase().replace("MINECRAFT:", ""));
+        } catch (IllegalArgumentException e) {
+            errors.accept("Invalid entity type: " + entity);
+            return null;
+        }
+
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            errors.accept("World not found: " + worldName);
+            return null;
+        }
+
+        SummonTemplate template = entityType == EntityType.ITEM
+                ? itemHandler.getTemplate(data, CompileFeedback.of(errors))
+                : entityHandler.getTemplate(entityType, data, CompileFeedback.of(errors));
+        if (template == null) {
+            return null;
+        }
+        return new SpawnJob(template, new Location(world, x, y, z), sender, tracker);
+    }
+}
@@ -0,0 +1,157 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Describes where the cursor is inside a partially typed JSON payload,
+ * so tab completion can suggest keys and values that fit there
+ */
+final class JsonCursor {
+
+    enum Position {
+        KEY,
+        VALUE,
+        NONE
+    }
+
+    private final Position position;
+    private final String parentKey;
+    private final String key;
+    private final String partial;
+    private final boolean quoted;
+
+    private JsonCursor(Position position, String parentKey, String key, String partial, boolean quoted) {
+        this.position = position;
+        this.parentKey = parentKey;
+        this.key = key;
+        this.partial = partial;
+        this.quoted = quoted;
+    }
+
+    /**
+     * Scans a partial payload up to its end, tracking the key that owns each open object
+     */
+    static JsonCursor of(String json) {
+        Deque<String> owners = new ArrayDeque<>();
+        Deque<Boolean> inObject = new ArrayDeque<>();
+        String lastKey = "";
+        boolean expectingKey = false;
+        char quote = 0;
+        boolean escaped = false;
+        int tokenStart = -1;
+        char lastStructural = 0;
+
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (quote != 0) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == quote) {
+                    if (expectingKey) {
+                        lastKey = json.substring(tokenStart, i);
+                    }
+                    quote = 0;
+                    tokenStart = -1;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"':
+                case '\'':
+                    quote = c;
+                    tokenStart = i + 1;
+                    break;
+                case '{':
+                case '[':
+                    owners.push(lastKey);
+                    inObject.push(c == '{');
+                    expectingKey = c == '{';
+                    lastStructural = c;
+                    tokenStart = -1;
+                    break;
+                case '}':
+                case ']':
+                    if (!owners.isEmpty()) {
+                        owners.pop();
+                        inObject.pop();
+                    }
+                    expectingKey = false;
+                    lastStructural = c;
+                    tokenStart = -1;
+                    break;
+                case ':':
+                    if (expectingKey && tokenStart >= 0) {
+                        lastKey = json.substring(tokenStart, i).trim();
+                    }
+                    expectingKey = false;
+                    lastStructural = c;
+                    tokenStart = -1;
+                    break;
+                case ',':
+                    expectingKey = !inObject.isEmpty() && inObject.peek();
+                    lastStructural = c;
+                    tokenStart = -1;
+                    break;
+                default:
+                    if (Character.isWhitespace(c)) {
+                        if (tokenStart >= 0 && expectingKey) {
+                            lastKey = json.substring(tokenStart, i);
+                        }
+                        tokenStart = -1;
+                    } else if (tokenStart < 0) {
+                        // Start of an unquoted (lenient) key or value
+                        tokenStart = i;
+                        lastStructural = 0;
+                    }
+                    break;
+            }
+        }
+
+        String parent = owners.isEmpty() ? null : owners.peek();
+        if (parent == null) {
+            return new JsonCursor(Position.NONE, "", "", "", false);
+        }
+
+        Position position = expectingKey ? Position.KEY : Position.VALUE;
+        if (tokenStart >= 0) {
+            return new JsonCursor(position, parent, lastKey, json.substring(tokenStart), quote != 0);
+        }
+        if (lastStructural == '{' || lastStructural == ',' || lastStructural == ':' || lastStructural == '[') {
+            return new JsonCursor(position, parent, lastKey, "", false);
+        }
+        return new JsonCursor(Position.NONE, parent, lastKey, "", false);
+    }
+
+    Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Key of the object or array the cursor is in, empty for the root object
+     */
+    String getParentKey() {
+        return parentKey;
+    }
+
+    /**
+     * Key whose value is being typed, when the position is VALUE
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Text typed so far for the current key or value, without its opening quote
+     */
+    String getPartial() {
+        return partial;
+    }
+
+    boolean isQuoted() {
+        return quoted;
+    }
+}
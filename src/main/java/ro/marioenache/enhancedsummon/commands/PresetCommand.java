@@ -0,0 +1,272 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.handlers.EntityHandler;
+import ro.marioenache.enhancedsummon.handlers.ItemHandler;
+import ro.marioenache.enhancedsummon.presets.Preset;
+import ro.marioenache.enhancedsummon.presets.PresetLibrary;
+import ro.marioenache.enhancedsummon.scheduling.SpawnPlanner;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+import ro.marioenache.enhancedsummon.templates.TemplateCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Handles /esummon preset, which saves summon payloads under a name so they can be
+ * summoned again without pasting the JSON. Presets are kept in presets.dat in the plugin folder.
+ */
+public class PresetCommand {
+
+    private static final String USAGE = "§cUsage: /esummon preset save <name> <entity> [json] | use <name> [world x y z | selector] [count=<n>] | list [page] | delete <name>";
+    private static final Pattern NAME = Pattern.compile("[a-z0-9_.-]{1,64}");
+    private static final int NAMES_PER_PAGE = 50;
+
+    private final JavaPlugin plugin;
+    private final SpawnPlanner spawnPlanner;
+    private final EntityHandler entityHandler;
+    private final ItemHandler itemHandler;
+    private final PresetLibrary library;
+
+    public PresetCommand(JavaPlugin plugin, SpawnPlanner spawnPlanner, EntityHandler entityHandler, ItemHandler itemHandler) {
+        this.plugin = plugin;
+        this.spawnPlanner = spawnPlanner;
+        this.entityHandler = entityHandler;
+        this.itemHandler = itemHandler;
+        this.library = openLibrary(plugin);
+    }
+
+    private static PresetLibrary openLibrary(JavaPlugin plugin) {
+        int cacheSize = plugin.getConfig().getInt("cache.presets", 128);
+        try {
+            return PresetLibrary.open(plugin.getDataFolder().toPath().resolve("presets.dat"), cacheSize);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not read presets.dat, presets are unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs a preset subcommand; args are the arguments after "preset". Called from a summon worker thread.
+     */
+    public void handle(CommandSender sender, String[] args) {
+        if (library == null) {
+            sender.sendMessage("§cPresets are unavailable, see the server log");
+            return;
+        }
+        if (args.length < 1) {
+            sender.sendMessage(USAGE);
+            return;
+        }
+
+        switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "save":
+                save(sender, args);
+                break;
+            case "use":
+                use(sender, args);
+                break;
+            case "list":
+                list(sender, args);
+                break;
+            case "delete":
+                delete(sender, args);
+                break;
+            default:
+                sender.sendMessage(USAGE);
+                break;
+        }
+    }
+
+    /**
+     * Names of the saved presets, sorted, or none if presets are unavailable
+     */
+    public List<String> getNames() {
+        return library != null ? library.getNames() : List.of();
+    }
+
+    /**
+     * Closes the preset file
+     */
+    public void shutdown() {
+        if (library != null) {
+            library.close();
+        }
+    }
+
+    private void save(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("enhancedsummon.preset")) {
+            sender.sendMessage("§cYou don't have permission to manage presets.");
+            return;
+        }
+        if (args.length < 3) {
+            sender.sendMessage("§cUsage: /esummon preset save <name> <entity> [json]");
+            return;
+        }
+
+        String name = args[1].toLowerCase(Locale.ROOT);
+        if (!NAME.matcher(name).matches()) {
+            sender.sendMessage("§cPreset names may only use letters, digits, '_', '-' and '.', up to 64 characters");
+            return;
+        }
+
+        EntityType entityType;
+        try {
+            entityType = EntityType.valueOf(args[2].toUpperCase(Locale.ROOT).replace("MINECRAFT:", ""));
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§cInvalid entity type: " + args[2]);
+            return;
+        }
+
+        // Store the payload in its normalized form, so using it later skips the whitespace work
+        String json = args.length > 3 ? TemplateCache.normalize(String.join(" ", Arrays.copyOfRange(args, 3, args.length))) : "";
+
+        // Compile once now, so a broken payload is reported when it is saved rather than on every use
+        SummonTemplate template = getTemplate(entityType, json, sender);
+        if (template == null) {
+            return;
+        }
+
+        try {
+            boolean replaced = library.contains(name);
+            library.save(new Preset(name, entityType.name(), json));
+            sender.sendMessage("§aPreset " + name + (replaced ? " updated" : " saved") + " (" + entityType + ")");
+        } catch (IOException e) {
+            sender.sendMessage("§cCould not save preset " + name + ": " + e.getMessage());
+            plugin.getLogger().warning("Could not save preset " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void use(CommandSender sender, String[] args) {
+        SummonOptions options;
+        try {
+            options = SummonOptions.parse(Arrays.copyOfRange(args, 1, args.length));
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§c" + e.getMessage());
+            return;
+        }
+        String[] remaining = options.getRemainingArgs();
+        boolean selector = remaining.length == 2 && SummonCommandExecutor.isSelector(remaining[1]);
+        if (remaining.length != 1 && remaining.length != 5 && !selector) {
+            sender.sendMessage("§cUsage: /esummon preset use <name> [world x y z | selector] [count=<n>] [spread=<r>] [offset=<x,y,z>] [place=<mode>] [radius=<r>] [-q]");
+            return;
+        }
+
+        int maxCount = plugin.getConfig().getInt("spawning.max-count", 10000);
+        if (options.getCount() > maxCount) {
+            sender.sendMessage("§cCount cannot be larger than " + maxCount);
+            return;
+        }
+
+        String name = remaining[0].toLowerCase(Locale.ROOT);
+        Preset preset;
+        try {
+            preset = library.get(name);
+        } catch (UncheckedIOException e) {
+            sender.sendMessage("§cCould not read preset " + name + ": " + e.getCause().getMessage());
+            return;
+        }
+        if (preset == null) {
+            sender.sendMessage("§cUnknown preset: " + name);
+            return;
+        }
+
+        Location location = null;
+        if (remaining.length == 5) {
+            location = SummonCommandExecutor.parseLocation(sender, remaining, 1);
+            if (location == null) {
+                return; // Error already sent to sender
+            }
+        } else if (selector) {
+            // Resolved on the main thread once the preset is known to compile
+        } else if (sender instanceof Player) {
+            location = ((Player) sender).getLocation();
+        } else {
+            sender.sendMessage("§cConsole must specify world and coordinates: /esummon preset use <name> <world> <x> <y> <z>");
+            return;
+        }
+
+        EntityType entityType;
+        try {
+            entityType = EntityType.valueOf(preset.getEntityType());
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§cPreset " + name + " uses an entity type this server does not have: " + preset.getEntityType());
+            return;
+        }
+
+        SummonTemplate template = getTemplate(entityType, preset.getJson(), sender);
+        if (template == null) {
+            return;
+        }
+        if (selector) {
+            SummonCommandExecutor.selectTargets(plugin, sender, remaining[1], options,
+                    targets -> spawnPlanner.submit(template, targets, options, sender));
+        } else {
+            spawnPlanner.submit(template, location, options, sender);
+        }
+    }
+
+    private void list(CommandSender sender, String[] args) {
+        List<String> names = library.getNames();
+        if (names.isEmpty()) {
+            sender.sendMessage("§7No presets saved yet, use /esummon preset save <name> <entity> [json]");
+            return;
+        }
+
+        int pages = (names.size() + NAMES_PER_PAGE - 1) / NAMES_PER_PAGE;
+        int page = 1;
+        if (args.length > 1) {
+            try {
+                page = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage("§cInvalid page: " + args[1]);
+                return;
+            }
+        }
+        page = Math.max(1, Math.min(page, pages));
+
+        List<String> shown = names.subList((page - 1) * NAMES_PER_PAGE, Math.min(names.size(), page * NAMES_PER_PAGE));
+        sender.sendMessage("§6Presets (" + names.size() + ")" + (pages > 1 ? ", page " + page + "/" + pages : "") + ": §f" + String.join(", ", shown));
+    }
+
+    private void delete(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("enhancedsummon.preset")) {
+            sender.sendMessage("§cYou don't have permission to manage presets.");
+            return;
+        }
+        if (args.length != 2) {
+            sender.sendMessage("§cUsage: /esummon preset delete <name>");
+            return;
+        }
+
+        String name = args[1].toLowerCase(Locale.ROOT);
+        try {
+            if (library.delete(name)) {
+                sender.sendMessage("§aPreset " + name + " deleted");
+            } else {
+                sender.sendMessage("§cUnknown preset: " + name);
+            }
+        } catch (IOException e) {
+            sender.sendMessage("§cCould not delete preset " + name + ": " + e.getMessage());
+            plugin.getLogger().warning("Could not delete preset " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compiles a preset payload through the handlers, whose template caches keep the compiled form
+     */
+    private SummonTemplate getTemplate(EntityType entityType, String json, CommandSender sender) {
+        String payload = json.isEmpty() ? null : json;
+        return entityType == EntityType.ITEM
+                ? itemHandler.getTemplate(payload, sender)
+                : entityHandler.getTemplate(entityType, payload, sender);
+    }
+}
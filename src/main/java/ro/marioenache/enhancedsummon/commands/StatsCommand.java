@@ -0,0 +1,102 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import org.bukkit.command.CommandSender;
+import ro.marioenache.enhancedsummon.metrics.LatencyHistogram;
+import ro.marioenache.enhancedsummon.metrics.SummonMetrics;
+import ro.marioenache.enhancedsummon.scheduling.AdmissionController;
+import ro.marioenache.enhancedsummon.scheduling.SpawnQueue;
+import ro.marioenache.enhancedsummon.scheduling.SummonExecutor;
+import ro.marioenache.enhancedsummon.templates.TemplateCache;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Handles /esummon stats [reset], which shows where summon time goes
+ */
+public class StatsCommand {
+
+    private final SummonMetrics metrics;
+    private final SpawnQueue spawnQueue;
+    private final SummonExecutor summonExecutor;
+    private final TemplateCache<?> entityTemplates;
+    private final TemplateCache<?> itemTemplates;
+
+    public StatsCommand(SummonMetrics metrics, SpawnQueue spawnQueue, SummonExecutor summonExecutor,
+                        TemplateCache<?> entityTemplates, TemplateCache<?> itemTemplates) {
+        this.metrics = metrics;
+        this.spawnQueue = spawnQueue;
+        this.summonExecutor = summonExecutor;
+        this.entityTemplates = entityTemplates;
+        this.itemTemplates = itemTemplates;
+    }
+
+    /**
+     * Runs the stats subcommand; args are the arguments after "stats"
+     */
+    public void handle(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("enhancedsummon.stats")) {
+            sender.sendMessage("§cYou don't have permission to view summon statistics.");
+            return;
+        }
+
+        if (args.length == 1 && args[0].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            entityTemplates.resetCounters();
+            itemTemplates.resetCounters();
+            sender.sendMessage("§aSummon statistics reset");
+            return;
+        } else if (args.length > 0) {
+            sender.sendMessage("§cUsage: /esummon stats [reset]");
+            return;
+        }
+
+        sender.sendMessage("§6Summon stage latencies (count, p50 / p90 / p99 / max):");
+        for (SummonMetrics.Stage stage : SummonMetrics.Stage.values()) {
+            LatencyHistogram histogram = metrics.getHistogram(stage);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            sender.sendMessage("§7 " + stage.name().toLowerCase(Locale.ROOT) + ": §f" + histogram.getCount() + "x, " +
+                    formatMillis(histogram.getPercentile(50)) + " / " +
+                    formatMillis(histogram.getPercentile(90)) + " / " +
+                    formatMillis(histogram.getPercentile(99)) + " / " +
+                    formatMillis(histogram.getMax()) + " ms");
+        }
+
+        Map<String, long[]> types = metrics.getTypeCounts();
+        if (!types.isEmpty()) {
+            StringBuilder line = new StringBuilder("§6Spawned by type:§f");
+            for (Map.Entry<String, long[]> entry : types.entrySet()) {
+                long[] counts = entry.getValue();
+                line.append(' ').append(entry.getKey()).append(' ').append(counts[0]);
+                if (counts[1] > 0) {
+                    line.append(" §c(").append(counts[1]).append(" failed)§f");
+                }
+                line.append(',');
+            }
+            line.setLength(line.length() - 1);
+            sender.sendMessage(line.toString());
+        }
+
+        AdmissionController admission = spawnQueue.getAdmissionController();
+        sender.sendMessage("§6Queue: §f" + spawnQueue.getPendingJobs() + " pending jobs, " +
+                spawnQueue.getPendingChunks() + " pending chunks, last tick " + spawnQueue.getLastDrainJobs() +
+                " spawns in " + formatMillis(spawnQueue.getLastDrainNanos()) + " ms");
+        sender.sendMessage("§6Workers: §f" + summonExecutor.getStatsSummary());
+        sender.sendMessage("§6Template caches: §fentities " + formatCache(entityTemplates) + ", items " + formatCache(itemTemplates));
+        sender.sendMessage("§6Limits: §f" + admission.getSummonedCount() + " summoned entities counted, " +
+                admission.getRejected() + " refused, " + admission.getDeferredTicks() + " ticks rate limited");
+    }
+
+    private static String formatCache(TemplateCache<?> cache) {
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        return cache.size() + "/" + cache.getMaxSize() + " cached, " + hits + " hits / " + lookups + " lookups" +
+                (lookups > 0 ? String.format(Locale.ROOT, " (%.1f%%)", hits * 100.0 / lookups) : "");
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
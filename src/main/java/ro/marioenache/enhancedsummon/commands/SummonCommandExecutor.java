@@ -12,34 +12,144 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
+import ro.marioenache.enhancedsummon.api.QueuedSummonService;
+import ro.marioenache.enhancedsummon.api.SummonService;
 import ro.marioenache.enhancedsummon.handlers.EntityHandler;
 import ro.marioenache.enhancedsummon.handlers.ItemHandler;
+import ro.marioenache.enhancedsummon.metrics.SummonMetrics;
+import ro.marioenache.enhancedsummon.properties.EntityPropertyRegistry;
+import ro.marioenache.enhancedsummon.scheduling.SpawnPlanner;
+import ro.marioenache.enhancedsummon.scheduling.SpawnQueue;
+import ro.marioenache.enhancedsummon.scheduling.SummonExecutor;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+import ro.marioenache.enhancedsummon.utils.EnchantmentMapper;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.RejectedExecutionException;
 
 public class SummonCommandExecutor implements CommandExecutor {
     
     private final JavaPlugin plugin;
     private final EntityHandler entityHandler;
     private final ItemHandler itemHandler;
+    private final SpawnQueue spawnQueue;
+    private final SummonExecutor summonExecutor;
+    private final SpawnPlanner spawnPlanner;
+    private final ImportCommand importCommand;
+    private final StatsCommand statsCommand;
+    private final CloneCommand cloneCommand;
+    private final PresetCommand presetCommand;
+    private final SummonService summonService;
     
-    public SummonCommandExecutor(JavaPlugin plugin) {
+    public SummonCommandExecutor(JavaPlugin plugin, EntityPropertyRegistry propertyRegistry, EnchantmentMapper enchantmentMapper) {
         this.plugin = plugin;
-        this.entityHandler = new EntityHandler(plugin);
-        this.itemHandler = new ItemHandler(plugin);
+        this.summonExecutor = new SummonExecutor(plugin);
+        this.spawnQueue = new SpawnQueue(plugin);
+        this.spawnPlanner = new SpawnPlanner(plugin, spawnQueue, summonExecutor);
+        this.entityHandler = new EntityHandler(plugin, spawnQueue, propertyRegistry);
+        this.itemHandler = new ItemHandler(plugin, spawnQueue, enchantmentMapper);
+        this.importCommand = new ImportCommand(plugin, spawnQueue, summonExecutor, entityHandler, itemHandler);
+        this.statsCommand = new StatsCommand(spawnQueue.getMetrics(), spawnQueue, summonExecutor,
+                entityHandler.getTemplateCache(), itemHandler.getTemplateCache());
+        this.cloneCommand = new CloneCommand(plugin, spawnPlanner);
+        this.presetCommand = new PresetCommand(plugin, spawnPlanner, entityHandler, itemHandler);
+        this.summonService = new QueuedSummonService(plugin, spawnPlanner, entityHandler, itemHandler, summonExecutor);
+        this.spawnQueue.start();
     }
     
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
-        // Run the command processing asynchronously
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> processCommand(sender, args));
+        // Run the command processing on the summon workers
+        try {
+            summonExecutor.execute(() -> processCommand(sender, args));
+        } catch (RejectedExecutionException e) {
+            sender.sendMessage("§cThe server is busy handling other summons, please try again in a moment.");
+        }
         return true;
     }
     
-    private void processCommand(CommandSender sender, String[] args) {
+    /**
+     * Stops the summon workers and the spawn queue
+     */
+    public void shutdown() {
+        importCommand.shutdown();
+        summonExecutor.shutdown();
+        spawnQueue.stop();
+        presetCommand.shutdown();
+    }
+    
+    public SummonExecutor getSummonExecutor() {
+        return summonExecutor;
+    }
+    
+    public SpawnQueue getSpawnQueue() {
+        return spawnQueue;
+    }
+    
+    public ImportCommand getImportCommand() {
+        return importCommand;
+    }
+    
+    public PresetCommand getPresetCommand() {
+        return presetCommand;
+    }
+    
+    /**
+     * Summons for other plugins, sharing the workers, caches and spawn queue of the command
+     */
+    public SummonService getSummonService() {
+        return summonService;
+    }
+    
+    private void processCommand(CommandSender sender, String[] rawArgs) {
+        long start = System.nanoTime();
+
         // Check if there are enough arguments (at least entity type)
-        if (args.length < 1) {
-            sender.sendMessage("§cUsage: /esummon <entity> [world] [x] [y] [z] [json]");
+        if (rawArgs.length < 1) {
+            sender.sendMessage("§cUsage: /esummon <entity> [world x y z | selector] [count=<n>] [spread=<r>] [offset=<x,y,z>] [place=<mode>] [radius=<r>] [-q] [json]");
+            return;
+        }
+
+        // Bulk import from a file
+        if (rawArgs[0].equalsIgnoreCase("import")) {
+            importCommand.handle(sender, Arrays.copyOfRange(rawArgs, 1, rawArgs.length));
+            return;
+        }
+
+        // Latency statistics
+        if (rawArgs[0].equalsIgnoreCase("stats")) {
+            statsCommand.handle(sender, Arrays.copyOfRange(rawArgs, 1, rawArgs.length));
+            return;
+        }
+
+        // Copies of an existing entity
+        if (rawArgs[0].equalsIgnoreCase("clone")) {
+            cloneCommand.handle(sender, Arrays.copyOfRange(rawArgs, 1, rawArgs.length));
+            return;
+        }
+
+        // Saved payloads
+        if (rawArgs[0].equalsIgnoreCase("preset")) {
+            presetCommand.handle(sender, Arrays.copyOfRange(rawArgs, 1, rawArgs.length));
+            return;
+        }
+
+        // Strip option flags such as count=<n> from the arguments
+        SummonOptions options;
+        try {
+            options = SummonOptions.parse(rawArgs);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§c" + e.getMessage());
+            return;
+        }
+        String[] args = options.getRemainingArgs();
+
+        int maxCount = plugin.getConfig().getInt("spawning.max-count", 10000);
+        if (options.getCount() > maxCount) {
+            sender.sendMessage("§cCount cannot be larger than " + maxCount);
             return;
         }
         
@@ -53,12 +163,17 @@ public class SummonCommandExecutor implements CommandExecutor {
         }
         
         // Parse location information
-        Location location;
+        Location location = null;
+        String selector = null;
         int jsonArgIndex = -1;
         
-        if (args.length >= 5) {
+        if (args.length >= 2 && isSelector(args[1])) {
+            // Spawn at every entity the selector matches
+            selector = args[1];
+            jsonArgIndex = 2;
+        } else if (args.length >= 5) {
             // Full location specified (world, x, y, z)
-            location = parseLocation(sender, args);
+            location = parseLocation(sender, args, 1);
             if (location == null) {
                 return; // Error already sent to sender
             }
@@ -69,7 +184,7 @@ public class SummonCommandExecutor implements CommandExecutor {
             jsonArgIndex = args.length >= 2 ? 1 : -1; // JSON starts at index 1 if only entity is specified
         } else {
             // Console without full location specified
-            sender.sendMessage("§cConsole must specify world and coordinates: /esummon <entity> <world> <x> <y> <z> [json]");
+            sender.sendMessage("§cConsole must specify world and coordinates or a selector: /esummon <entity> <world> <x> <y> <z> [json]");
             return;
         }
         
@@ -83,25 +198,66 @@ public class SummonCommandExecutor implements CommandExecutor {
             jsonData = jsonBuilder.toString().trim();
         }
         
-        // Handle entity spawning based on type
-        final String finalJsonData = jsonData;
-        final Location finalLocation = location;
-        final EntityType finalEntityType = entityType;
-        
-        if (entityType == EntityType.ITEM) {
-            // Handle item entity spawning
-            itemHandler.handleItemSpawn(finalLocation, finalJsonData, sender);
+        // Compile the payload here, so only the spawns themselves run on the main thread
+        SummonTemplate template = entityType == EntityType.ITEM
+                ? itemHandler.getTemplate(jsonData, sender)
+                : entityHandler.getTemplate(entityType, jsonData, sender);
+        if (template == null) {
+            return; // Error already sent to sender
+        }
+        if (selector != null) {
+            selectTargets(plugin, sender, selector, options, targets -> spawnPlanner.submit(template, targets, options, sender));
         } else {
-            // Handle regular entity spawning
-            entityHandler.handleEntitySpawn(finalLocation, finalEntityType, finalJsonData, sender);
+            spawnPlanner.submit(template, location, options, sender);
         }
+        spawnQueue.getMetrics().record(SummonMetrics.Stage.PARSE, System.nanoTime() - start);
     }
     
     /**
-     * Parse a location from command arguments
+     * Whether a location argument is an entity selector such as @a or @e[type=zombie]
+     */
+    static boolean isSelector(String arg) {
+        return arg.startsWith("@");
+    }
+
+    /**
+     * Resolves a selector on the main thread and passes the locations of the matched entities on.
+     * Invalid selectors, no matches and totals beyond spawning.max-count are reported to the sender.
+     */
+    static void selectTargets(JavaPlugin plugin, CommandSender sender, String selector, SummonOptions options,
+                              Consumer<List<Location>> then) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            List<Entity> entities;
+            try {
+                entities = Bukkit.selectEntities(sender, selector);
+            } catch (IllegalArgumentException e) {
+                sender.sendMessage("§cInvalid selector " + selector + ": " + e.getMessage());
+                return;
+            }
+            if (entities.isEmpty()) {
+                sender.sendMessage("§cNo entities matched " + selector);
+                return;
+            }
+
+            int maxCount = plugin.getConfig().getInt("spawning.max-count", 10000);
+            if ((long) options.getCount() * entities.size() > maxCount) {
+                sender.sendMessage("§c" + selector + " matched " + entities.size() + " entities, which would spawn more than " + maxCount);
+                return;
+            }
+
+            List<Location> targets = new ArrayList<>(entities.size());
+            for (Entity entity : entities) {
+                targets.add(entity.getLocation());
+            }
+            then.accept(targets);
+        });
+    }
+
+    /**
+     * Parse a location from the world and coordinates starting at the given argument
      */
-    private Location parseLocation(CommandSender sender, String[] args) {
-        String worldName = args[1];
+    static Location parseLocation(CommandSender sender, String[] args, int start) {
+        String worldName = args[start];
         World world = Bukkit.getWorld(worldName);
         
         if (world == null) {
@@ -110,9 +266,9 @@ public class SummonCommandExecutor implements CommandExecutor {
         }
         
         try {
-            double x = parseCoordinate(args[2], sender instanceof Player ? ((Player) sender).getLocation().getX() : 0);
-            double y = parseCoordinate(args[3], sender instanceof Player ? ((Player) sender).getLocation().getY() : 0);
-            double z = parseCoordinate(args[4], sender instanceof Player ? ((Player) sender).getLocation().getZ() : 0);
+            double x = parseCoordinate(args[start + 1], sender instanceof Player ? ((Player) sender).getLocation().getX() : 0);
+            double y = parseCoordinate(args[start + 2], sender instanceof Player ? ((Player) sender).getLocation().getY() : 0);
+            double z = parseCoordinate(args[start + 3], sender instanceof Player ? ((Player) sender).getLocation().getZ() : 0);
             return new Location(world, x, y, z);
         } catch (NumberFormatException e) {
             sender.sendMessage("§cInvalid coordinates. Please use numbers for x, y, and z.");
@@ -123,7 +279,7 @@ public class SummonCommandExecutor implements CommandExecutor {
     /**
      * Parse a coordinate string which might be relative (with ~)
      */
-    private double parseCoordinate(String coord, double reference) {
+    static double parseCoordinate(String coord, double reference) {
         if (coord.startsWith("~")) {
             if (coord.length() > 1) {
                 return reference + Double.parseDouble(coord.substring(1));
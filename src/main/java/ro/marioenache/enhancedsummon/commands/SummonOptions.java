@@ -0,0 +1,231 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import ro.marioenache.enhancedsummon.api.Placement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional key=value flags of the summon command, such as count=50 or spread=4, and
+ * -q to keep success and progress messages quiet.
+ * Flags may appear anywhere between the entity type and the JSON payload.
+ */
+public class SummonOptions {
+
+    private int count = 1;
+    private double spread = 0;
+    private double offsetX = 0;
+    private double offsetY = 0;
+    private double offsetZ = 0;
+    private boolean quiet = false;
+    private Placement placement = Placement.EXACT;
+    private int radius = -1;
+    private String[] remainingArgs;
+
+    /**
+     * Options for a summon that does not come from command arguments, such as one requested through the API
+     */
+    public static SummonOptions of(int count, double spread, Placement placement, int radius) {
+        SummonOptions options = new SummonOptions();
+        options.count = count;
+        options.spread = spread;
+        options.placement = placement;
+        options.radius = radius;
+        options.remainingArgs = new String[0];
+        return options;
+    }
+
+    private SummonOptions() {
+    }
+
+    /**
+     * Extracts the option flags from the command arguments.
+     * The remaining arguments keep their original order.
+     *
+     * @throws IllegalArgumentException if a flag has an invalid value
+     */
+    public static SummonOptions parse(String[] args) {
+        SummonOptions options = new SummonOptions();
+        List<String> remaining = new ArrayList<>(args.length);
+
+        boolean inJson = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+
+            // Everything from the start of the JSON payload onwards belongs to the payload
+            if (!inJson && i > 0 && (arg.startsWith("{") || arg.startsWith("["))) {
+                inJson = true;
+            }
+
+            // Selector arguments such as @e[type=zombie, distance=..10] may have been split at their spaces
+            if (!inJson && arg.startsWith("@") && !isClosed(arg)) {
+                StringBuilder selector = new StringBuilder(arg);
+                while (!isClosed(selector) && i + 1 < args.length) {
+                    selector.append(' ').append(args[++i]);
+                }
+                remaining.add(selector.toString());
+                continue;
+            }
+
+            if (inJson || i == 0 || !options.parseFlag(arg)) {
+                remaining.add(arg);
+            }
+        }
+
+        options.remainingArgs = remaining.toArray(new String[0]);
+        return options;
+    }
+
+    /**
+     * Whether parse would take the argument as a flag, without checking its value
+     */
+    static boolean isFlag(String arg) {
+        if (arg.equals("-q")) {
+            return true;
+        }
+        int separator = arg.indexOf('=');
+        if (separator <= 0) {
+            return false;
+        }
+        switch (arg.substring(0, separator).toLowerCase()) {
+            case "count":
+            case "spread":
+            case "offset":
+            case "place":
+            case "radius":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static boolean isClosed(CharSequence selector) {
+        int depth = 0;
+        for (int i = 0; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+        }
+        return depth <= 0;
+    }
+
+    /**
+     * Parses a single flag, returning false if the argument is not a known flag
+     */
+    private boolean parseFlag(String arg) {
+        if (arg.equals("-q")) {
+            quiet = true;
+            return true;
+        }
+
+        int separator = arg.indexOf('=');
+        if (separator <= 0) {
+            return false;
+        }
+
+        String key = arg.substring(0, separator).toLowerCase();
+        String value = arg.substring(separator + 1);
+        switch (key) {
+            case "count":
+                count = parseInt(key, value);
+                if (count < 1) {
+                    throw new IllegalArgumentException("Count must be at least 1");
+                }
+                return true;
+            case "spread":
+                spread = parseDouble(key, value);
+                if (spread < 0) {
+                    throw new IllegalArgumentException("Spread cannot be negative");
+                }
+                return true;
+            case "offset":
+                String[] parts = value.split(",");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Offset must be in the form offset=<x>,<y>,<z>");
+                }
+                offsetX = parseDouble(key, parts[0]);
+                offsetY = parseDouble(key, parts[1]);
+                offsetZ = parseDouble(key, parts[2]);
+                return true;
+            case "place":
+                try {
+                    placement = Placement.valueOf(value.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Placement must be exact, safe or surface");
+                }
+                return true;
+            case "radius":
+                radius = parseInt(key, value);
+                if (radius < 0) {
+                    throw new IllegalArgumentException("Radius cannot be negative");
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String key, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSpread() {
+        return spread;
+    }
+
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    public double getOffsetY() {
+        return offsetY;
+    }
+
+    public double getOffsetZ() {
+        return offsetZ;
+    }
+
+    /**
+     * Whether only failures should be reported back to the sender
+     */
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    public Placement getPlacement() {
+        return placement;
+    }
+
+    /**
+     * Search radius for safe and surface placement, or -1 to use the configured default
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns the command arguments with all option flags removed
+     */
+    public String[] getRemainingArgs() {
+        return remainingArgs;
+    }
+}
@@ -1,45 +1,380 @@
 package ro.marioenache.enhancedsummon.commands;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.EntityType;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import ro.marioenache.enhancedsummon.properties.EntityPropertyRegistry;
+import ro.marioenache.enhancedsummon.utils.EnchantmentMapper;
+import ro.marioenache.enhancedsummon.utils.PrefixIndex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 
-public class SummonTabCompleter implements TabCompleter {
+/**
+ * Completes /esummon arguments from prebuilt indexes: the subcommands, entity types, worlds,
+ * selectors, flags and JSON payload keys. Positions are counted with the flags left out, the
+ * same way the command reads them. Everything it reads is either immutable, swapped in as a
+ * whole through a volatile field or read under the lock of its owner, so it can run on any thread.
+ */
+public class SummonTabCompleter implements TabCompleter, Listener {
+
+    private static final List<String> COORDINATES = List.of("~", "0");
+    private static final PrefixIndex SUBCOMMANDS = new PrefixIndex(List.of("import", "stats", "clone", "preset"));
+    private static final PrefixIndex IMPORT_ACTIONS = new PrefixIndex(List.of("pause", "resume", "cancel"));
+    private static final PrefixIndex STATS_ACTIONS = new PrefixIndex(List.of("reset"));
+    private static final PrefixIndex CLONE_TARGETS = new PrefixIndex(List.of("looked-at"));
+    private static final PrefixIndex PRESET_ACTIONS = new PrefixIndex(List.of("save", "use", "list", "delete"));
+    private static final PrefixIndex SELECTORS = new PrefixIndex(List.of("@a", "@e", "@e[", "@p", "@r", "@s"));
+    private static final PrefixIndex FLAGS = new PrefixIndex(List.of("count=", "spread=", "offset=", "place=", "radius=", "-q"));
+    private static final PrefixIndex PLACEMENTS = new PrefixIndex(List.of("exact", "safe", "surface"));
+
+    private final EntityPropertyRegistry propertyRegistry;
+
+    private final EnchantmentMapper enchantmentMapper;
+
+    private final ImportCommand importCommand;
+    private final PresetCommand presetCommand;
+
+    // Built once at startup
+    private final PrefixIndex entityTypes;
+    private final PrefixIndex materials;
+    private final PrefixIndex bareMaterials;
+    private final Map<String, PrefixIndex> itemKeys = new HashMap<>();
+
+    // Rebuilt when worlds load or unload, when entity properties change or when datapacks are reloaded
+    private volatile PrefixIndex worlds;
+    private volatile EntityKeys entityKeys;
+    private volatile EnchantmentKeys enchantmentKeys;
+
+    public SummonTabCompleter(EntityPropertyRegistry propertyRegistry, EnchantmentMapper enchantmentMapper,
+                              ImportCommand importCommand, PresetCommand presetCommand) {
+        this.propertyRegistry = propertyRegistry;
+        this.enchantmentMapper = enchantmentMapper;
+        this.importCommand = importCommand;
+        this.presetCommand = presetCommand;
+
+        List<String> entityNames = new ArrayList<>();
+        for (EntityType type : EntityType.values()) {
+            entityNames.add(type.name());
+        }
+        this.entityTypes = new PrefixIndex(entityNames);
+
+        List<String> materialIds = new ArrayList<>();
+        List<String> materialNames = new ArrayList<>();
+        for (Material material : Material.values()) {
+            if (!material.isLegacy() && material.isItem()) {
+                String name = material.name().toLowerCase(Locale.ROOT);
+                materialIds.add("minecraft:" + name);
+                materialNames.add(name);
+            }
+        }
+        this.materials = new PrefixIndex(materialIds);
+        this.bareMaterials = new PrefixIndex(materialNames);
+
+        // Keys understood by the item payload reader, by the key of the object they appear in
+        itemKeys.put("", new PrefixIndex(List.of("id", "count", "components", "tag", "Item")));
+        itemKeys.put("Item", new PrefixIndex(List.of("id", "count", "components", "tag")));
+        itemKeys.put("components", new PrefixIndex(List.of("custom_name", "enchantments")));
+        itemKeys.put("enchantments", new PrefixIndex(List.of("levels", "show_in_tooltip")));
+        itemKeys.put("tag", new PrefixIndex(List.of("display", "Enchantments", "HideFlags", "Unbreakable", "CustomModelData")));
+        itemKeys.put("display", new PrefixIndex(List.of("Name", "Lore")));
+        itemKeys.put("Enchantments", new PrefixIndex(List.of("id", "lvl")));
+        itemKeys.put("ench", new PrefixIndex(List.of("id", "lvl")));
+
+        refreshWorlds(null);
+        this.entityKeys = new EntityKeys(propertyRegistry);
+        this.enchantmentKeys = new EnchantmentKeys(enchantmentMapper);
+    }
 
     @Override
     public @Nullable List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
-        List<String> completions = new ArrayList<>();
-
+        String arg = args[args.length - 1];
         if (args.length == 1) {
-            // First argument - entity type
-            String input = args[0].toUpperCase();
-            completions = Arrays.stream(EntityType.values())
-                    .map(EntityType::name)
-                    .filter(name -> name.startsWith(input))
-                    .collect(Collectors.toList());
-        } else if (args.length == 2) {
-            // Second argument - world name
-            String input = args[1].toLowerCase();
-            completions = Bukkit.getWorlds().stream()
-                    .map(World::getName)
-                    .filter(name -> name.toLowerCase().startsWith(input))
-                    .collect(Collectors.toList());
-        } else if (args.length >= 3 && args.length <= 5) {
+            // Entity type or subcommand
+            List<String> suggestions = new ArrayList<>(entityTypes.complete(arg));
+            for (String subcommand : SUBCOMMANDS.complete(arg)) {
+                if (subcommand.equals("preset") || sender.hasPermission("enhancedsummon." + subcommand)) {
+                    suggestions.add(subcommand);
+                }
+            }
+            return suggestions;
+        }
+
+        switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "import":
+                if (args.length != 2 || !sender.hasPermission("enhancedsummon.import")) {
+                    return Collections.emptyList();
+                }
+                List<String> suggestions = new ArrayList<>(IMPORT_ACTIONS.complete(arg));
+                suggestions.addAll(new PrefixIndex(importCommand.getFileNames()).complete(arg));
+                return suggestions;
+            case "stats":
+                return args.length == 2 ? STATS_ACTIONS.complete(arg) : Collections.emptyList();
+            case "clone":
+                // clone <uuid|looked-at> [world x y z] [flags]
+                return completeTarget(args, 1, CLONE_TARGETS::complete, false);
+            case "preset":
+                return completePreset(args);
+            default:
+                // <entity> [world x y z | selector] [flags] [json]
+                int jsonStart = findJson(args, 1);
+                if (jsonStart >= 0) {
+                    return completeJson(args, jsonStart, args[0]);
+                }
+                return completeTarget(args, 0, entityTypes::complete, true);
+        }
+    }
+
+    private List<String> completePreset(String[] args) {
+        String arg = args[args.length - 1];
+        if (args.length == 2) {
+            return PRESET_ACTIONS.complete(arg);
+        }
+
+        switch (args[1].toLowerCase(Locale.ROOT)) {
+            case "save":
+                // save <name> <entity> [json]
+                if (args.length == 3) {
+                    return presetNames().complete(arg);
+                }
+                if (args.length == 4) {
+                    return entityTypes.complete(arg);
+                }
+                int jsonStart = findJson(args, 4);
+                return jsonStart >= 0 ? completeJson(args, jsonStart, args[3]) : Collections.emptyList();
+            case "use":
+                // use <name> [world x y z | selector] [flags]
+                return completeTarget(args, 2, first -> presetNames().complete(first), true);
+            case "delete":
+                return args.length == 3 ? presetNames().complete(arg) : Collections.emptyList();
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    private PrefixIndex presetNames() {
+        return new PrefixIndex(presetCommand.getNames());
+    }
+
+    /**
+     * Completes a summon target starting at args[from]: the first argument, then a world and
+     * coordinates or a selector, with flags allowed anywhere after the first argument
+     */
+    private List<String> completeTarget(String[] args, int from, Function<String, List<String>> first, boolean selectors) {
+        List<String> positional = positionalArgs(args, from);
+        if (positional == null) {
+            // Still inside a selector that was split at its spaces
+            return Collections.emptyList();
+        }
+
+        String arg = args[args.length - 1];
+        int position = positional.size();
+        if (position == 0) {
+            return first.apply(arg);
+        }
+
+        List<String> suggestions = new ArrayList<>();
+        boolean selected = selectors && position > 1 && SummonCommandExecutor.isSelector(positional.get(1));
+        if (position == 1) {
+            suggestions.addAll(worlds.complete(arg));
+            if (selectors) {
+                suggestions.addAll(SELECTORS.complete(arg));
+            }
+        } else if (position <= 4 && !selected && (arg.isEmpty() || !Character.isLetter(arg.charAt(0)))) {
             // Coordinate suggestions - offer current position or zero
-            completions.add("~");
-            completions.add("0");
+            suggestions.addAll(COORDINATES);
+        }
+
+        if (arg.regionMatches(true, 0, "place=", 0, 6)) {
+            suggestions.addAll(PLACEMENTS.complete(arg.substring(6), arg.substring(0, 6), ""));
+        } else {
+            suggestions.addAll(FLAGS.complete(arg));
         }
+        return suggestions;
+    }
+
+    /**
+     * The arguments from args[from] up to the one being typed that are not flags, with selectors
+     * split at their spaces joined back together, as SummonOptions.parse reads them.
+     * Returns null if the argument being typed is part of a selector.
+     */
+    private static List<String> positionalArgs(String[] args, int from) {
+        List<String> positional = new ArrayList<>();
+        int last = args.length - 1;
+        for (int i = from; i < last; i++) {
+            String arg = args[i];
+            if (i > from && SummonCommandExecutor.isSelector(arg) && !SummonOptions.isClosed(arg)) {
+                StringBuilder selector = new StringBuilder(arg);
+                while (!SummonOptions.isClosed(selector) && i + 1 < last) {
+                    selector.append(' ').append(args[++i]);
+                }
+                if (!SummonOptions.isClosed(selector)) {
+                    return null;
+                }
+                positional.add(selector.toString());
+            } else if (i == from || !SummonOptions.isFlag(arg)) {
+                positional.add(arg);
+            }
+        }
+        return positional;
+    }
 
-        return completions;
+    /**
+     * Index of the argument the JSON payload starts at, searching from args[from], or -1 if there is none
+     */
+    private static int findJson(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            if (args[i].startsWith("{")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Suggests keys and values inside the JSON payload of the given entity type, which starts at the given argument
+     */
+    private List<String> completeJson(String[] args, int jsonStart, String entityType) {
+        String json = jsonStart == args.length - 1
+                ? args[jsonStart]
+                : String.join(" ", Arrays.asList(args).subList(jsonStart, args.length));
+        JsonCursor cursor = JsonCursor.of(json);
+        String partial = cursor.getPartial();
+        String lastArg = args[args.length - 1];
+        if (cursor.getPosition() == JsonCursor.Position.NONE || partial.length() > lastArg.length()) {
+            return Collections.emptyList();
+        }
+
+        // Only the last argument gets replaced, so keep everything typed before the partial key or value
+        String before = lastArg.substring(0, lastArg.length() - partial.length());
+        boolean item = entityType.equalsIgnoreCase(EntityType.ITEM.name());
+
+        if (cursor.getPosition() == JsonCursor.Position.KEY) {
+            String after = cursor.isQuoted() ? "\":" : ":";
+            PrefixIndex keys;
+            if (cursor.getParentKey().equals("levels")) {
+                keys = getEnchantmentKeys().forPartial(partial);
+            } else if (item) {
+                keys = itemKeys.get(cursor.getParentKey());
+            } else {
+                keys = getEntityKeys().forParent(cursor.getParentKey());
+            }
+            return keys != null ? keys.complete(partial, before, after) : Collections.emptyList();
+        }
+
+        String after = cursor.isQuoted() ? "\"" : "";
+        if (cursor.getKey().equals("id")) {
+            boolean enchantment = cursor.getParentKey().equals("Enchantments") || cursor.getParentKey().equals("ench");
+            if (enchantment) {
+                return getEnchantmentKeys().forPartial(partial).complete(partial, before, after);
+            }
+            if (item) {
+                return (partial.indexOf(':') >= 0 ? materials : bareMaterials).complete(partial, before, after);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private EntityKeys getEntityKeys() {
+        EntityKeys keys = entityKeys;
+        if (keys.version != propertyRegistry.getVersion()) {
+            keys = new EntityKeys(propertyRegistry);
+            entityKeys = keys;
+        }
+        return keys;
+    }
+
+    private EnchantmentKeys getEnchantmentKeys() {
+        EnchantmentKeys keys = enchantmentKeys;
+        if (keys.version != enchantmentMapper.getVersion()) {
+            keys = new EnchantmentKeys(enchantmentMapper);
+            enchantmentKeys = keys;
+        }
+        return keys;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        refreshWorlds(null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        // The world is still in the world list while the event is fired
+        refreshWorlds(event.getWorld());
+    }
+
+    private void refreshWorlds(World unloading) {
+        List<String> names = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            if (world != unloading) {
+                names.add(world.getName());
+            }
+        }
+        worlds = new PrefixIndex(names);
+    }
+
+    /**
+     * Entity property keys from the registry, for the root object and the components object
+     */
+    private static final class EntityKeys {
+
+        private final int version;
+        private final PrefixIndex root;
+        private final PrefixIndex components;
+
+        private EntityKeys(EntityPropertyRegistry registry) {
+            this.version = registry.getVersion();
+            Set<String> rootKeys = new TreeSet<>(registry.getKeys(EntityPropertyRegistry.Section.ROOT));
+            rootKeys.add("components");
+            this.root = new PrefixIndex(rootKeys);
+            this.components = new PrefixIndex(registry.getKeys(EntityPropertyRegistry.Section.COMPONENTS));
+        }
+
+        private PrefixIndex forParent(String parentKey) {
+            if (parentKey.isEmpty()) {
+                return root;
+            }
+            return parentKey.equals("components") ? components : null;
+        }
+    }
+
+    /**
+     * Enchantment ids from the enchantment index, with and without their namespace
+     */
+    private static final class EnchantmentKeys {
+
+        private final int version;
+        private final PrefixIndex namespaced;
+        private final PrefixIndex bare;
+
+        private EnchantmentKeys(EnchantmentMapper mapper) {
+            this.version = mapper.getVersion();
+            this.namespaced = new PrefixIndex(mapper.getKeys());
+            this.bare = new PrefixIndex(mapper.getBareKeys());
+        }
+
+        private PrefixIndex forPartial(String partial) {
+            return partial.indexOf(':') >= 0 ? namespaced : bare;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package ro.marioenache.enhancedsummon.handlers;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.function.Consumer;
+
+/**
+ * Receives the problems found while compiling a summon payload. Messages carry no color codes.
+ */
+public interface CompileFeedback {
+
+    /**
+     * Part of the payload was ignored, such as an unknown key; the rest of it is used
+     */
+    void warning(String message);
+
+    /**
+     * The payload, or part of it, could not be applied
+     */
+    void error(String message);
+
+    /**
+     * Sends warnings and errors to a command sender in yellow and red
+     */
+    static CompileFeedback of(CommandSender sender) {
+        return new CompileFeedback() {
+            @Override
+            public void warning(String message) {
+                sender.sendMessage("§e" + message);
+            }
+
+            @Override
+            public void error(String message) {
+                sender.sendMessage("§c" + message);
+            }
+        };
+    }
+
+    /**
+     * Sends warnings and errors alike to the given sink
+     */
+    static CompileFeedback of(Consumer<String> sink) {
+        return new CompileFeedback() {
+            @Override
+            public void warning(String message) {
+                sink.accept(message);
+            }
+
+            @Override
+            public void error(String message) {
+                sink.accept(message);
+            }
+        };
+    }
+}
@@ -1,170 +1,88 @@
 package ro.marioenache.enhancedsummon.handlers;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.plugin.java.JavaPlugin;
-import ro.marioenache.enhancedsummon.utils.JsonProcessor;
+import ro.marioenache.enhancedsummon.metrics.SummonMetrics;
+import ro.marioenache.enhancedsummon.properties.BoundProperty;
+import ro.marioenache.enhancedsummon.properties.EntityPropertyRegistry;
+import ro.marioenache.enhancedsummon.scheduling.SpawnQueue;
+import ro.marioenache.enhancedsummon.templates.EntityTemplate;
+import ro.marioenache.enhancedsummon.templates.TemplateCache;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EntityHandler {
 
     private final JavaPlugin plugin;
-    private final JsonProcessor jsonProcessor;
+    private final EntityPropertyRegistry propertyRegistry;
+    private final TemplateCache<EntityTemplate> templateCache;
+    private final SpawnQueue spawnQueue;
+    private volatile int compiledRegistryVersion;
 
-    public EntityHandler(JavaPlugin plugin) {
+    public EntityHandler(JavaPlugin plugin, SpawnQueue spawnQueue, EntityPropertyRegistry propertyRegistry) {
         this.plugin = plugin;
-        this.jsonProcessor = new JsonProcessor();
+        this.spawnQueue = spawnQueue;
+        this.propertyRegistry = propertyRegistry;
+        this.compiledRegistryVersion = propertyRegistry.getVersion();
+        this.templateCache = new TemplateCache<>(plugin.getConfig().getInt("cache.entity-templates", 256));
     }
 
     /**
-     * Handles spawning an entity with JSON data
+     * Returns the compiled template for an entity type and payload, using the template cache.
+     * Payloads that fail to compile are reported to the sender and spawn without properties.
      */
-    public void handleEntitySpawn(Location location, EntityType entityType, String jsonData, CommandSender sender) {
-        // Process JSON async and then spawn on main thread
-        processJsonAsync(jsonData)
-                .thenAcceptAsync(processedJson -> {
-                    // Entity spawning must happen on the main thread
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        try {
-                            Entity entity = location.getWorld().spawnEntity(location, entityType);
-
-                            // Apply JSON data to the entity if provided
-                            if (processedJson != null) {
-                                applyJsonToEntity(entity, processedJson, sender);
-                            }
-
-                            sender.sendMessage("§aSuccessfully spawned " + entityType.toString() +
-                                    " in " + location.getWorld().getName() +
-                                    " at X:" + location.getX() +
-                                    " Y:" + location.getY() +
-                                    " Z:" + location.getZ());
-                        } catch (Exception e) {
-                            sender.sendMessage("§cFailed to spawn entity: " + e.getMessage());
-                            plugin.getLogger().warning("Error spawning entity: " + e.getMessage());
-                            e.printStackTrace();
-                        }
-                    });
-                }, task -> Bukkit.getScheduler().runTask(plugin, task));
+    public EntityTemplate getTemplate(EntityType entityType, String jsonData, CommandSender sender) {
+        return getTemplate(entityType, jsonData, CompileFeedback.of(sender));
     }
 
     /**
-     * Process JSON data asynchronously
+     * Same as {@link #getTemplate(EntityType, String, CommandSender)}, sending problems to the given feedback instead
      */
-    private CompletableFuture<String> processJsonAsync(String jsonData) {
-        return CompletableFuture.supplyAsync(() -> jsonData);
+    public EntityTemplate getTemplate(EntityType entityType, String jsonData, CompileFeedback feedback) {
+        if (jsonData == null || jsonData.isEmpty()) {
+            return EntityTemplate.empty(entityType);
+        }
+
+        // Templates compiled before a property was (un)registered are stale
+        int registryVersion = propertyRegistry.getVersion();
+        if (registryVersion != compiledRegistryVersion) {
+            compiledRegistryVersion = registryVersion;
+            templateCache.clear();
+        }
+
+        String key = entityType.name() + '|' + TemplateCache.normalize(jsonData);
+        EntityTemplate template = templateCache.get(key, ignored -> {
+            long start = System.nanoTime();
+            EntityTemplate compiled = compileTemplate(entityType, jsonData, feedback);
+            spawnQueue.getMetrics().record(SummonMetrics.Stage.COMPILE, entityType.toString(), System.nanoTime() - start);
+            return compiled;
+        });
+        return template != null ? template : EntityTemplate.empty(entityType);
+    }
+
+    public TemplateCache<EntityTemplate> getTemplateCache() {
+        return templateCache;
     }
 
     /**
-     * Applies JSON data to an entity using NBT tags
+     * Compiles JSON data into the properties it sets, reporting unknown or invalid keys
      */
-    private void applyJsonToEntity(Entity entity, String jsonData, CommandSender sender) {
+    private EntityTemplate compileTemplate(EntityType entityType, String jsonData, CompileFeedback feedback) {
         try {
-            // Parse the JSON data
-            JsonObject jsonObject = JsonParser.parseString(jsonData).getAsJsonObject();
-
-            // Apply custom name if present
-            if (jsonObject.has("CustomName")) {
-                JsonElement nameElement = jsonObject.get("CustomName");
-                String customName = jsonProcessor.extractTextFromJson(nameElement);
-                entity.setCustomName(customName);
-                entity.setCustomNameVisible(true);
-            }
-
-            // Apply custom name visibility if present
-            if (jsonObject.has("CustomNameVisible")) {
-                boolean visible = jsonObject.get("CustomNameVisible").getAsBoolean();
-                entity.setCustomNameVisible(visible);
-            }
-
-            // Apply glowing effect if present
-            if (jsonObject.has("Glowing")) {
-                boolean glowing = jsonObject.get("Glowing").getAsBoolean();
-                entity.setGlowing(glowing);
-            }
-
-            // Apply gravity if present
-            if (jsonObject.has("NoGravity")) {
-                boolean noGravity = jsonObject.get("NoGravity").getAsBoolean();
-                entity.setGravity(!noGravity);
-            }
-
-            // Apply silent if present
-            if (jsonObject.has("Silent")) {
-                boolean silent = jsonObject.get("Silent").getAsBoolean();
-                entity.setSilent(silent);
-            }
-
-            // Apply invulnerable if present
-            if (jsonObject.has("Invulnerable")) {
-                boolean invulnerable = jsonObject.get("Invulnerable").getAsBoolean();
-                entity.setInvulnerable(invulnerable);
-            }
-
-            // Apply fire ticks if present
-            if (jsonObject.has("Fire")) {
-                int fire = jsonObject.get("Fire").getAsInt();
-                entity.setFireTicks(fire);
-            }
-
-            // Check for components format (Minecraft 1.20+)
-            if (jsonObject.has("components")) {
-                JsonObject componentsObject = jsonObject.getAsJsonObject("components");
-
-                // Apply custom name from components if present
-                if (componentsObject.has("custom_name")) {
-                    JsonElement nameElement = componentsObject.get("custom_name");
-                    String customName = jsonProcessor.extractTextFromJson(nameElement);
-                    entity.setCustomName(customName);
-                    entity.setCustomNameVisible(true);
-                }
-
-                // Apply custom name visibility from components if present
-                if (componentsObject.has("custom_name_visible")) {
-                    boolean visible = componentsObject.get("custom_name_visible").getAsBoolean();
-                    entity.setCustomNameVisible(visible);
-                }
-
-                // Apply glowing effect from components if present
-                if (componentsObject.has("glowing")) {
-                    boolean glowing = componentsObject.get("glowing").getAsBoolean();
-                    entity.setGlowing(glowing);
-                }
-
-                // Apply gravity from components if present
-                if (componentsObject.has("no_gravity")) {
-                    boolean noGravity = componentsObject.get("no_gravity").getAsBoolean();
-                    entity.setGravity(!noGravity);
-                }
-
-                // Apply silent from components if present
-                if (componentsObject.has("silent")) {
-                    boolean silent = componentsObject.get("silent").getAsBoolean();
-                    entity.setSilent(silent);
-                }
-
-                // Apply invulnerable from components if present
-                if (componentsObject.has("invulnerable")) {
-                    boolean invulnerable = componentsObject.get("invulnerable").getAsBoolean();
-                    entity.setInvulnerable(invulnerable);
-                }
-
-                // Apply fire ticks from components if present
-                if (componentsObject.has("fire")) {
-                    int fire = componentsObject.get("fire").getAsInt();
-                    entity.setFireTicks(fire);
-                }
+            // Stream the JSON data straight into the property appliers
+            List<String> problems = new ArrayList<>();
+            BoundProperty[] properties = propertyRegistry.compile(entityType, jsonData, problems);
+            for (String problem : problems) {
+                feedback.warning("Ignored JSON data: " + problem);
             }
 
+            return new EntityTemplate(entityType, properties, spawnQueue.getMetrics());
         } catch (Exception e) {
-            sender.sendMessage("§cError applying JSON data: " + e.getMessage());
+            feedback.error("Error applying JSON data: " + e.getMessage());
             plugin.getLogger().warning("Error applying JSON data: " + e.getMessage());
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package ro.marioenache.enhancedsummon.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage latency histograms and per-entity-type counters for the summon pipeline.
+ * Safe to record from any thread; recording never locks.
+ */
+public class SummonMetrics {
+
+    /**
+     * Stages a summon passes through, in order
+     */
+    public enum Stage {
+        // Command handling on a summon worker, including compiling the payload
+        PARSE,
+        // Compiling a payload that was not in the template cache
+        COMPILE,
+        // From the job being queued until the main thread picks it up
+        QUEUE_WAIT,
+        // Loading the target chunk
+        CHUNK_LOAD,
+        // Spawning the entity, including applying its properties
+        SPAWN,
+        // Applying the compiled properties to the entity
+        PROPERTIES,
+        // From the job being queued until the entity exists
+        END_TO_END
+    }
+
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+    private final Map<String, TypeCounters> types = new ConcurrentHashMap<>();
+    private final boolean jfrEvents;
+
+    public SummonMetrics(boolean jfrEvents) {
+        this.jfrEvents = jfrEvents;
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Records the time spent in a stage
+     */
+    public void record(Stage stage, long nanos) {
+        histograms.get(stage).record(nanos);
+        if (jfrEvents) {
+            commitEvent(stage, null, nanos, false);
+        }
+    }
+
+    /**
+     * Records the time spent in a stage by a summon of the given entity type
+     */
+    public void record(Stage stage, String entityType, long nanos) {
+        histograms.get(stage).record(nanos);
+        if (jfrEvents) {
+            commitEvent(stage, entityType, nanos, false);
+        }
+    }
+
+    public void recordSpawned(String entityType) {
+        getCounters(entityType).spawned.increment();
+    }
+
+    public void recordFailed(String entityType) {
+        getCounters(entityType).failed.increment();
+        if (jfrEvents) {
+            commitEvent(Stage.SPAWN, entityType, 0, true);
+        }
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Spawned and failed counts by entity type, sorted by type
+     */
+    public Map<String, long[]> getTypeCounts() {
+        Map<String, long[]> result = new TreeMap<>();
+        types.forEach((type, counters) -> result.put(type, new long[]{counters.spawned.sum(), counters.failed.sum()}));
+        return result;
+    }
+
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        types.clear();
+    }
+
+    private TypeCounters getCounters(String entityType) {
+        return types.computeIfAbsent(entityType, ignored -> new TypeCounters());
+    }
+
+    private void commitEvent(Stage stage, String entityType, long nanos, boolean failed) {
+        SummonStageEvent event = new SummonStageEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage.name();
+            event.entityType = entityType;
+            event.stageDuration = nanos;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private static class TypeCounters {
+
+        private final LongAdder spawned = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+    }
+}
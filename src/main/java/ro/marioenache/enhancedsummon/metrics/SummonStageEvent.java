@@ -0,0 +1,32 @@
+package ro.marioenache.enhancedsummon.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one stage of a summon, so summon timings show up in flight recordings
+ */
+@Name("ro.marioenache.enhancedsummon.SummonStage")
+@Label("Summon Stage")
+@Category({"EnhancedSummon"})
+@Description("Time spent in one stage of an /esummon summon")
+@StackTrace(false)
+class SummonStageEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Entity Type")
+    String entityType;
+
+    @Label("Stage Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long stageDuration;
+
+    @Label("Failed")
+    boolean failed;
+}
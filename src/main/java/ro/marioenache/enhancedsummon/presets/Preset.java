@@ -0,0 +1,32 @@
+package ro.marioenache.enhancedsummon.presets;
+
+/**
+ * A saved summon: the entity type and its JSON payload
+ */
+public class Preset {
+
+    private final String name;
+    private final String entityType;
+    private final String json;
+
+    public Preset(String name, String entityType, String json) {
+        this.name = name;
+        this.entityType = entityType;
+        this.json = json;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * The JSON payload, or an empty string if the preset has none
+     */
+    public String getJson() {
+        return json;
+    }
+}
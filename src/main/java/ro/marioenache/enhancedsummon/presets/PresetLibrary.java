@@ -0,0 +1,316 @@
+package ro.marioenache.enhancedsummon.presets;
+
+import ro.marioenache.enhancedsummon.templates.TemplateCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named summon presets stored in a single file. The file holds the preset bodies followed by
+ * a small index of name, entity type, offset and length; a header holds the offset and length
+ * of the current index.
+ * Opening the library only reads the index, bodies are read on first use and kept in a bounded
+ * cache. Saving appends the body and a new index and then moves the header pointer, so a crash
+ * mid-save leaves the previous index intact; whatever was appended after it is cut off the next
+ * time the library is opened. Space left behind by replaced and deleted presets
+ * is reclaimed by rewriting the file once it outweighs the live data.
+ */
+public class PresetLibrary {
+
+    private static final int MAGIC = 0x45535052; // "ESPR"
+    private static final int VERSION = 2;
+    // Version 1 headers had no index length, the index ran to the end of the file
+    private static final int VERSION_UNSIZED = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final long INDEX_POINTER = 8;
+    // Below this much dead space the file is never rewritten
+    private static final long MIN_COMPACT_BYTES = 1 << 20;
+
+    private final Path file;
+    private final TemplateCache<Preset> cache;
+
+    // Guarded by this
+    private final Map<String, Entry> index = new HashMap<>();
+    private FileChannel channel;
+    private long indexSize;
+    private long liveBytes;
+
+    private PresetLibrary(Path file, int cacheSize) {
+        this.file = file;
+        this.cache = new TemplateCache<>(cacheSize);
+    }
+
+    /**
+     * Opens the library stored in the given file, reading only its index. A missing file is an empty library.
+     */
+    public static PresetLibrary open(Path file, int cacheSize) throws IOException {
+        PresetLibrary library = new PresetLibrary(file, cacheSize);
+        if (Files.exists(file)) {
+            library.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                library.readIndex();
+            } catch (IOException | RuntimeException e) {
+                library.close();
+                throw e;
+            }
+        }
+        return library;
+    }
+
+    /**
+     * Returns the preset with the given name, or null if there is none.
+     * Loads and cache inserts happen under the library lock, so a load that raced a save
+     * cannot put the replaced body back into the cache.
+     *
+     * @throws UncheckedIOException if the preset body cannot be read
+     */
+    public synchronized Preset get(String name) {
+        return cache.get(name, this::load);
+    }
+
+    public synchronized boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * Names of all presets, sorted
+     */
+    public synchronized List<String> getNames() {
+        List<String> names = new ArrayList<>(index.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Saves a preset, replacing any preset with the same name
+     */
+    public synchronized void save(Preset preset) throws IOException {
+        if (channel == null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeFully(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(0).putLong(0).flip(), 0);
+        }
+
+        byte[] body = preset.getJson().getBytes(StandardCharsets.UTF_8);
+        long offset = channel.size();
+        writeFully(ByteBuffer.wrap(body), offset);
+
+        Entry replaced = index.put(preset.getName(), new Entry(preset.getEntityType(), offset, body.length));
+        liveBytes += body.length - (replaced != null ? replaced.length : 0);
+        cache.invalidate(preset.getName());
+        writeIndex();
+    }
+
+    /**
+     * Deletes a preset, returning false if there was none with that name
+     */
+    public synchronized boolean delete(String name) throws IOException {
+        Entry removed = index.remove(name);
+        if (removed == null) {
+            return false;
+        }
+        liveBytes -= removed.length;
+        cache.invalidate(name);
+        writeIndex();
+        return true;
+    }
+
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing is left unwritten, every save forces its data to disk
+            }
+            channel = null;
+        }
+    }
+
+    private synchronized Preset load(String name) {
+        Entry entry = index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            ByteBuffer body = ByteBuffer.allocate(entry.length);
+            readFully(body, entry.offset);
+            return new Preset(name, entry.entityType, new String(body.array(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read preset " + name, e);
+        }
+    }
+
+    private void readIndex() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        int version = header.getInt() == MAGIC ? header.getInt() : -1;
+        if (version != VERSION && version != VERSION_UNSIZED) {
+            throw new IOException(file.getFileName() + " is not a preset library");
+        }
+        long indexOffset = header.getLong();
+        long indexLength = version == VERSION ? header.getLong() : channel.size() - indexOffset;
+        if (indexOffset == 0) {
+            indexOffset = HEADER_SIZE;
+            indexLength = 0;
+        } else {
+            ByteBuffer buffer = ByteBuffer.allocate((int) indexLength);
+            readFully(buffer, indexOffset);
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()))) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    String name = in.readUTF();
+                    Entry entry = new Entry(in.readUTF(), in.readLong(), in.readInt());
+                    index.put(name, entry);
+                    liveBytes += entry.length;
+                }
+            }
+        }
+        indexSize = indexLength;
+
+        if (version == VERSION_UNSIZED) {
+            // The old header is too small to hold the index length, rewriting the file upgrades it
+            compact();
+        } else if (channel.size() > indexOffset + indexLength) {
+            // Bodies and indexes appended by a save that never moved the header
+            channel.truncate(indexOffset + indexLength);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Appends the current index and points the header at it, rewriting the whole file instead
+     * when most of it is dead space
+     */
+    private void writeIndex() throws IOException {
+        byte[] serialized = serializeIndex(index);
+        long dead = channel.size() - HEADER_SIZE - liveBytes - indexSize;
+        if (dead > MIN_COMPACT_BYTES && dead > liveBytes) {
+            compact();
+            return;
+        }
+
+        long offset = channel.size();
+        writeFully(ByteBuffer.wrap(serialized), offset);
+        channel.force(false);
+        writeFully(ByteBuffer.allocate(16).putLong(offset).putLong(serialized.length).flip(), INDEX_POINTER);
+        channel.force(false);
+        indexSize = serialized.length;
+    }
+
+    /**
+     * Writes the live presets to a new file and swaps it in. Nothing changes until the swap
+     * succeeds, so a failed compaction leaves the library on the old file.
+     */
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<String, Entry> moved = new HashMap<>();
+        byte[] serialized;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = HEADER_SIZE;
+                for (Map.Entry<String, Entry> preset : index.entrySet()) {
+                    Entry entry = preset.getValue();
+                    long copied = 0;
+                    while (copied < entry.length) {
+                        copied += channel.transferTo(entry.offset + copied, entry.length - copied, out.position(position + copied));
+                    }
+                    moved.put(preset.getKey(), new Entry(entry.entityType, position, entry.length));
+                    position += entry.length;
+                }
+
+                serialized = serializeIndex(moved);
+                ByteBuffer indexBuffer = ByteBuffer.wrap(serialized);
+                while (indexBuffer.hasRemaining()) {
+                    position += out.write(indexBuffer, position);
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION)
+                        .putLong(position - serialized.length).putLong(serialized.length).flip();
+                while (header.hasRemaining()) {
+                    out.write(header, header.position());
+                }
+                out.force(true);
+            }
+            // The old channel stays open until the new file is in place, so a failed move keeps it usable
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        FileChannel old = channel;
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            old.close();
+        } catch (IOException ignored) {
+            // The old file has already been replaced
+        }
+        index.clear();
+        index.putAll(moved);
+        indexSize = serialized.length;
+    }
+
+    private static byte[] serializeIndex(Map<String, Entry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> preset : entries.entrySet()) {
+                out.writeUTF(preset.getKey());
+                out.writeUTF(preset.getValue().entityType);
+                out.writeLong(preset.getValue().offset);
+                out.writeInt(preset.getValue().length);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(file.getFileName() + " is truncated");
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Where a preset body lives in the file
+     */
+    private static class Entry {
+
+        private final String entityType;
+        private final long offset;
+        private final int length;
+
+        private Entry(String entityType, long offset, int length) {
+            this.entityType = entityType;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ro.marioenache.enhancedsummon.properties;
+
+import org.bukkit.entity.Entity;
+
+/**
+ * A property applier together with its already parsed value, ready to run on the main thread
+ */
+@FunctionalInterface
+public interface BoundProperty {
+
+    void apply(Entity entity);
+}
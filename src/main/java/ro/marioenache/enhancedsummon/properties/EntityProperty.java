@@ -0,0 +1,57 @@
+package ro.marioenache.enhancedsummon.properties;
+
+import com.google.gson.JsonElement;
+import org.bukkit.entity.Entity;
+
+/**
+ * A JSON key that can be applied to entities of a given class
+ */
+public final class EntityProperty<E extends Entity, V> {
+
+    private final String key;
+    private final Class<E> entityClass;
+    private final PropertyType<V> type;
+    private final PropertyApplier<? super E, ? super V> applier;
+    private final int order;
+
+    EntityProperty(String key, Class<E> entityClass, PropertyType<V> type, PropertyApplier<? super E, ? super V> applier, int order) {
+        this.key = key;
+        this.entityClass = entityClass;
+        this.type = type;
+        this.applier = applier;
+        this.order = order;
+    }
+
+    /**
+     * Whether entities of the given class support this property
+     */
+    public boolean appliesTo(Class<? extends Entity> candidate) {
+        return candidate != null && entityClass.isAssignableFrom(candidate);
+    }
+
+    /**
+     * Parses the value once and returns an applier that only has to set it
+     *
+     * @throws IllegalArgumentException if the value has the wrong type
+     */
+    @SuppressWarnings("unchecked")
+    public BoundProperty bind(JsonElement element) {
+        V value = type.parse(element);
+        return entity -> applier.apply((E) entity, value);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Class<E> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Registration order, used to apply properties in a stable order regardless of key order in the payload
+     */
+    int getOrder() {
+        return order;
+    }
+}
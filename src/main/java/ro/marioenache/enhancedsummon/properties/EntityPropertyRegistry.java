@@ -0,0 +1,195 @@
+package ro.marioenache.enhancedsummon.properties;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.bukkit.entity.Ageable;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps summon JSON keys to typed entity property appliers. Payloads are compiled once
+ * into a flat array of bound properties, so spawning needs no per-key lookups.
+ * Other plugins can register their own properties.
+ */
+public class EntityPropertyRegistry {
+
+    /**
+     * Where a key appears in the payload: at the root (NBT style) or inside the "components" object
+     */
+    public enum Section {
+        ROOT,
+        COMPONENTS
+    }
+
+    private static final String COMPONENTS_KEY = "components";
+
+    private final Map<String, EntityProperty<?, ?>> rootProperties = new ConcurrentHashMap<>();
+    private final Map<String, EntityProperty<?, ?>> componentProperties = new ConcurrentHashMap<>();
+    private final AtomicInteger order = new AtomicInteger();
+    private final AtomicInteger version = new AtomicInteger();
+
+    public EntityPropertyRegistry() {
+        registerDefaults();
+    }
+
+    /**
+     * Registers a property, replacing any existing property with the same key in that section
+     */
+    public <E extends Entity, V> void register(Section section, String key, Class<E> entityClass,
+                                               PropertyType<V> type, PropertyApplier<? super E, ? super V> applier) {
+        getProperties(section).put(key, new EntityProperty<>(key, entityClass, type, applier, order.getAndIncrement()));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Removes a property, returning true if it was registered
+     */
+    public boolean unregister(Section section, String key) {
+        boolean removed = getProperties(section).remove(key) != null;
+        if (removed) {
+            version.incrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the keys registered in a section
+     */
+    public Set<String> getKeys(Section section) {
+        return Collections.unmodifiableSet(getProperties(section).keySet());
+    }
+
+    /**
+     * Changes every time a property is registered or removed, so compiled payloads can be invalidated
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Compiles a payload into the properties to apply for the given entity type, reading it
+     * in a single streaming pass. Unknown keys, keys that don't apply to the entity and
+     * mistyped values are skipped and described in the problems list.
+     *
+     * @throws JsonSyntaxException if the payload is not a valid JSON object
+     */
+    public BoundProperty[] compile(EntityType entityType, String json, List<String> problems) {
+        List<Compiled> compiled = new ArrayList<>();
+        Class<? extends Entity> entityClass = entityType.getEntityClass();
+
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                if (key.equals(COMPONENTS_KEY) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String component = reader.nextName();
+                        bind(Section.COMPONENTS, component, reader, entityType, entityClass, compiled, problems);
+                    }
+                    reader.endObject();
+                } else {
+                    bind(Section.ROOT, key, reader, entityType, entityClass, compiled, problems);
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonSyntaxException(e.getMessage(), e);
+        }
+
+        // Root keys first, then components, each in registration order, as the payload's key order is arbitrary
+        compiled.sort(Comparator.comparingInt((Compiled c) -> c.section.ordinal()).thenComparingInt(c -> c.order));
+        BoundProperty[] result = new BoundProperty[compiled.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = compiled.get(i).property;
+        }
+        return result;
+    }
+
+    /**
+     * Binds the value the reader is positioned at. Values of unknown keys are skipped without being parsed.
+     */
+    private void bind(Section section, String key, JsonReader reader, EntityType entityType,
+                      Class<? extends Entity> entityClass, List<Compiled> compiled, List<String> problems) throws IOException {
+        String displayKey = section == Section.COMPONENTS ? COMPONENTS_KEY + "." + key : key;
+        EntityProperty<?, ?> property = getProperties(section).get(key);
+        if (property == null) {
+            reader.skipValue();
+            problems.add("Unknown key " + displayKey);
+            return;
+        }
+        if (!property.appliesTo(entityClass)) {
+            reader.skipValue();
+            problems.add("Key " + displayKey + " does not apply to " + entityType);
+            return;
+        }
+
+        JsonElement value = JsonParser.parseReader(reader);
+        try {
+            compiled.add(new Compiled(section, property.getOrder(), property.bind(value)));
+        } catch (IllegalArgumentException e) {
+            problems.add("Invalid value for " + displayKey + ": " + e.getMessage());
+        }
+    }
+
+    private Map<String, EntityProperty<?, ?>> getProperties(Section section) {
+        return section == Section.ROOT ? rootProperties : componentProperties;
+    }
+
+    /**
+     * Registers the keys supported out of the box, in both NBT and components style
+     */
+    private void registerDefaults() {
+        registerBoth("CustomName", "custom_name", Entity.class, PropertyType.TEXT, (entity, name) -> {
+            entity.customName(name);
+            entity.setCustomNameVisible(true);
+        });
+        registerBoth("CustomNameVisible", "custom_name_visible", Entity.class, PropertyType.BOOLEAN, Entity::setCustomNameVisible);
+        registerBoth("Glowing", "glowing", Entity.class, PropertyType.BOOLEAN, Entity::setGlowing);
+        registerBoth("NoGravity", "no_gravity", Entity.class, PropertyType.BOOLEAN, (entity, noGravity) -> entity.setGravity(!noGravity));
+        registerBoth("Silent", "silent", Entity.class, PropertyType.BOOLEAN, Entity::setSilent);
+        registerBoth("Invulnerable", "invulnerable", Entity.class, PropertyType.BOOLEAN, Entity::setInvulnerable);
+        registerBoth("Fire", "fire", Entity.class, PropertyType.INTEGER, Entity::setFireTicks);
+
+        // Living entities
+        register(Section.ROOT, "NoAI", LivingEntity.class, PropertyType.BOOLEAN, (entity, noAi) -> entity.setAI(!noAi));
+        register(Section.ROOT, "PersistenceRequired", LivingEntity.class, PropertyType.BOOLEAN, (entity, persistent) -> entity.setRemoveWhenFarAway(!persistent));
+        register(Section.ROOT, "CanPickUpLoot", LivingEntity.class, PropertyType.BOOLEAN, LivingEntity::setCanPickupItems);
+        register(Section.ROOT, "Age", Ageable.class, PropertyType.INTEGER, Ageable::setAge);
+    }
+
+    private <E extends Entity, V> void registerBoth(String rootKey, String componentKey, Class<E> entityClass,
+                                                    PropertyType<V> type, PropertyApplier<? super E, ? super V> applier) {
+        register(Section.ROOT, rootKey, entityClass, type, applier);
+        register(Section.COMPONENTS, componentKey, entityClass, type, applier);
+    }
+
+    private static class Compiled {
+
+        private final Section section;
+        private final int order;
+        private final BoundProperty property;
+
+        private Compiled(Section section, int order, BoundProperty property) {
+            this.section = section;
+            this.order = order;
+            this.property = property;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ro.marioenache.enhancedsummon.properties;
+
+import org.bukkit.entity.Entity;
+
+/**
+ * Applies a parsed property value to an entity
+ */
+@FunctionalInterface
+public interface PropertyApplier<E extends Entity, V> {
+
+    void apply(E entity, V value);
+}
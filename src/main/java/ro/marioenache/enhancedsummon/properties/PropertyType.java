@@ -0,0 +1,62 @@
+package ro.marioenache.enhancedsummon.properties;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import net.kyori.adventure.text.Component;
+import ro.marioenache.enhancedsummon.utils.TextComponentParser;
+
+/**
+ * Converts a JSON value into the typed value of a property
+ */
+@FunctionalInterface
+public interface PropertyType<V> {
+
+    /**
+     * Parses a JSON value
+     *
+     * @throws IllegalArgumentException if the value has the wrong type
+     */
+    V parse(JsonElement element);
+
+    /**
+     * Booleans, also accepting numbers and NBT-style strings such as "1b" or "0b"
+     */
+    PropertyType<Boolean> BOOLEAN = element -> {
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                return primitive.getAsBoolean();
+            }
+            if (primitive.isNumber()) {
+                return primitive.getAsInt() != 0;
+            }
+            switch (primitive.getAsString()) {
+                case "true": case "1b": case "1": return true;
+                case "false": case "0b": case "0": return false;
+                default: break;
+            }
+        }
+        throw new IllegalArgumentException("expected a boolean but got " + element);
+    };
+
+    PropertyType<Integer> INTEGER = element -> {
+        try {
+            return element.getAsJsonPrimitive().getAsInt();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("expected an integer but got " + element);
+        }
+    };
+
+    PropertyType<Double> DOUBLE = element -> {
+        try {
+            return element.getAsJsonPrimitive().getAsDouble();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("expected a number but got " + element);
+        }
+    };
+
+    /**
+     * Text components or plain strings
+     */
+    PropertyType<Component> TEXT = element -> TextComponentParser.shared().parse(element);
+}
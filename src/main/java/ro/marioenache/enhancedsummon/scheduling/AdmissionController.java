@@ -0,0 +1,202 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caps how many summoned entities may exist per chunk and per world, and how many
+ * summons may spawn per time window. Counts are kept up to date as entities are
+ * summoned and removed, so checking a cap never scans the world's entities.
+ * Entities are counted in the chunk they were summoned into and stop counting once
+ * they die or despawn. Entities in unloaded chunks keep counting, so letting a chunk
+ * unload does not make room for more summons.
+ * Only used from the main thread.
+ */
+public class AdmissionController implements Listener {
+
+    private final int maxPerChunk;
+    private final int maxPerWorld;
+    private final int maxPerWindow;
+
+    // Summoned entities that have not died or despawned, and where they were counted
+    private final Map<UUID, Slot> summoned = new HashMap<>();
+    private final Map<World, WorldCounts> counts = new HashMap<>();
+
+    // Spawns per tick over the last window, as a ring buffer with a running total
+    private final int[] window;
+    private int windowIndex;
+    private int windowTotal;
+
+    private long rejected;
+    private long deferredTicks;
+
+    public AdmissionController(JavaPlugin plugin) {
+        this.maxPerChunk = plugin.getConfig().getInt("limits.per-chunk", 500);
+        this.maxPerWorld = plugin.getConfig().getInt("limits.per-world", 20000);
+        this.maxPerWindow = plugin.getConfig().getInt("limits.per-window", 2000);
+        this.window = new int[Math.max(1, plugin.getConfig().getInt("limits.window-ticks", 20))];
+    }
+
+    /**
+     * Moves the time window on by one tick. Called once at the start of every tick.
+     */
+    void tick() {
+        windowIndex = (windowIndex + 1) % window.length;
+        windowTotal -= window[windowIndex];
+        window[windowIndex] = 0;
+    }
+
+    /**
+     * Whether the time window is used up, in which case spawning waits for a later tick
+     */
+    boolean isWindowFull() {
+        return maxPerWindow > 0 && windowTotal >= maxPerWindow;
+    }
+
+    /**
+     * Counts a tick in which spawns had to wait for the time window
+     */
+    void onDeferred() {
+        deferredTicks++;
+    }
+
+    /**
+     * Checks the chunk and world caps for a summon into the given chunk
+     *
+     * @return why the summon is refused, or null if it may spawn
+     */
+    String check(World world, long chunkKey) {
+        WorldCounts worldCounts = counts.get(world);
+        if (worldCounts == null) {
+            return null;
+        }
+        if (maxPerWorld > 0 && worldCounts.total >= maxPerWorld) {
+            rejected++;
+            return world.getName() + " already has " + worldCounts.total + " summoned entities (limit " + maxPerWorld + ")";
+        }
+        if (maxPerChunk > 0 && worldCounts.chunks.getOrDefault(chunkKey, 0) >= maxPerChunk) {
+            rejected++;
+            return "the target chunk has reached its limit of " + maxPerChunk + " summoned entities";
+        }
+        return null;
+    }
+
+    /**
+     * Records a summoned entity against the caps
+     */
+    void onSummoned(Entity entity, long chunkKey) {
+        window[windowIndex]++;
+        windowTotal++;
+
+        // Spawns cancelled by other plugins never enter the world
+        if (!entity.isValid()) {
+            return;
+        }
+
+        World world = entity.getWorld();
+        if (summoned.putIfAbsent(entity.getUniqueId(), new Slot(world, chunkKey)) == null) {
+            WorldCounts worldCounts = counts.computeIfAbsent(world, ignored -> new WorldCounts());
+            worldCounts.total++;
+            worldCounts.chunks.merge(chunkKey, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Entities of an unloading chunk are removed from the world right after this event;
+     * they stay counted until they come back or the world unloads
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        if (summoned.isEmpty()) {
+            return;
+        }
+        for (Entity entity : event.getEntities()) {
+            Slot slot = summoned.get(entity.getUniqueId());
+            if (slot != null) {
+                slot.unloaded = true;
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAdd(EntityAddToWorldEvent event) {
+        Slot slot = summoned.get(event.getEntity().getUniqueId());
+        if (slot != null) {
+            slot.unloaded = false;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        UUID uuid = event.getEntity().getUniqueId();
+        Slot slot = summoned.get(uuid);
+        if (slot == null || slot.unloaded) {
+            return;
+        }
+        summoned.remove(uuid);
+
+        WorldCounts worldCounts = counts.get(slot.world);
+        if (worldCounts != null) {
+            worldCounts.total--;
+            worldCounts.chunks.computeIfPresent(slot.chunkKey, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        World world = event.getWorld();
+        counts.remove(world);
+        summoned.values().removeIf(slot -> slot.world == world);
+    }
+
+    /**
+     * Number of summoned entities currently counted against the caps
+     */
+    public int getSummonedCount() {
+        return summoned.size();
+    }
+
+    /**
+     * Number of summons refused because a chunk or world was full
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Number of ticks in which spawns waited because the time window was used up
+     */
+    public long getDeferredTicks() {
+        return deferredTicks;
+    }
+
+    private static class Slot {
+
+        private final World world;
+        private final long chunkKey;
+        private boolean unloaded;
+
+        private Slot(World world, long chunkKey) {
+            this.world = world;
+            this.chunkKey = chunkKey;
+        }
+    }
+
+    private static class WorldCounts {
+
+        private int total;
+        private final Map<Long, Integer> chunks = new HashMap<>();
+    }
+}
@@ -0,0 +1,119 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Loads target chunks asynchronously before spawning and keeps them loaded
+ * with a plugin chunk ticket until every spawn waiting on them has run
+ */
+public class ChunkPreloader {
+
+    private final JavaPlugin plugin;
+    private final boolean generateChunks;
+    private final Executor mainThread;
+
+    // Number of pending spawns per ticketed chunk, only touched from the main thread
+    private final Map<World, Map<Long, Integer>> tickets = new HashMap<>();
+
+    public ChunkPreloader(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.generateChunks = plugin.getConfig().getBoolean("chunks.generate-missing", true);
+
+        // Continue inline when the chunk is already available on the main thread, otherwise hop over to it
+        Executor scheduler = Bukkit.getScheduler().getMainThreadExecutor(plugin);
+        this.mainThread = task -> {
+            if (Bukkit.isPrimaryThread()) {
+                task.run();
+            } else {
+                scheduler.execute(task);
+            }
+        };
+    }
+
+    /**
+     * Loads a chunk and adds a ticket for it. The future always completes on the main thread,
+     * with false if the chunk has not been generated yet and generating new chunks is disabled.
+     * A failed load completes the future exceptionally.
+     */
+    public CompletableFuture<Boolean> acquire(World world, int chunkX, int chunkZ) {
+        return world.getChunkAtAsync(chunkX, chunkZ, generateChunks).handleAsync((chunk, error) -> {
+            if (error != null) {
+                throw new CompletionException(error);
+            }
+            if (chunk == null) {
+                return false;
+            }
+
+            Map<Long, Integer> worldTickets = tickets.computeIfAbsent(world, ignored -> new HashMap<>());
+            if (worldTickets.merge(chunk.getChunkKey(), 1, Integer::sum) == 1) {
+                chunk.addPluginChunkTicket(plugin);
+            }
+            return true;
+        }, mainThread);
+    }
+
+    /**
+     * Loads a chunk without holding on to it and takes a snapshot of its blocks and heightmap
+     * on the main thread. Completes with null if the chunk has not been generated yet and
+     * generating new chunks is disabled.
+     *
+     * @param onTaken called on the main thread right after the snapshot is taken, before any block can change
+     */
+    public CompletableFuture<ChunkSnapshot> snapshot(World world, int chunkX, int chunkZ, Consumer<ChunkSnapshot> onTaken) {
+        return world.getChunkAtAsync(chunkX, chunkZ, generateChunks).thenApplyAsync(chunk -> {
+            if (chunk == null) {
+                return null;
+            }
+            ChunkSnapshot snapshot = chunk.getChunkSnapshot(true, false, false);
+            onTaken.accept(snapshot);
+            return snapshot;
+        }, mainThread);
+    }
+
+    /**
+     * Releases one hold on a chunk, removing the ticket once nothing else
+     * is waiting on it. Must be called on the main thread.
+     */
+    public void release(World world, int chunkX, int chunkZ) {
+        long key = Chunk.getChunkKey(chunkX, chunkZ);
+        Map<Long, Integer> worldTickets = tickets.get(world);
+        if (worldTickets == null || !worldTickets.containsKey(key)) {
+            return;
+        }
+
+        Integer remaining = worldTickets.computeIfPresent(key, (ignored, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            world.removePluginChunkTicket(chunkX, chunkZ, plugin);
+            if (worldTickets.isEmpty()) {
+                tickets.remove(world);
+            }
+        }
+    }
+
+    /**
+     * Removes every ticket held by the preloader
+     */
+    public void releaseAll() {
+        for (Map.Entry<World, Map<Long, Integer>> entry : tickets.entrySet()) {
+            for (long key : entry.getValue().keySet()) {
+                entry.getKey().removePluginChunkTicket((int) key, (int) (key >> 32), plugin);
+            }
+        }
+        tickets.clear();
+    }
+
+    public boolean isGeneratingChunks() {
+        return generateChunks;
+    }
+}
@@ -0,0 +1,77 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Width and height of each entity type, used to check that a spawn position has room for the
+ * entity before it exists. The API has no way to ask a type for its size, so sizes are learned
+ * from the entities that are spawned, with vanilla sizes of the larger mobs as the starting point.
+ * The largest size seen is kept, so a baby or a small slime never shrinks the box used for
+ * the full-size entities of its type. Safe to use from any thread.
+ */
+public class EntityDimensions {
+
+    // Size of a zombie or villager, used for types that have not been seen yet
+    private static final double[] DEFAULT = {0.6, 1.95};
+    private static final Map<EntityType, double[]> VANILLA = new EnumMap<>(EntityType.class);
+
+    static {
+        vanilla(EntityType.ITEM, 0.25, 0.25);
+        vanilla(EntityType.CHICKEN, 0.4, 0.7);
+        vanilla(EntityType.COW, 0.9, 1.4);
+        vanilla(EntityType.SPIDER, 1.4, 0.9);
+        vanilla(EntityType.ENDERMAN, 0.6, 2.9);
+        vanilla(EntityType.IRON_GOLEM, 1.4, 2.7);
+        vanilla(EntityType.HORSE, 1.3965, 1.6);
+        vanilla(EntityType.RAVAGER, 1.95, 2.2);
+        vanilla(EntityType.WITHER, 0.9, 3.5);
+        vanilla(EntityType.WARDEN, 0.9, 2.9);
+        vanilla(EntityType.GHAST, 4.0, 4.0);
+        vanilla(EntityType.ELDER_GUARDIAN, 1.9975, 1.9975);
+        vanilla(EntityType.SNIFFER, 1.9, 1.75);
+        vanilla(EntityType.GIANT, 3.6, 12.0);
+        vanilla(EntityType.ENDER_DRAGON, 16.0, 8.0);
+    }
+
+    private final Map<EntityType, double[]> learned = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the width and height of an entity type, in blocks
+     */
+    public double[] get(EntityType type) {
+        double[] size = learned.get(type);
+        if (size == null) {
+            size = VANILLA.getOrDefault(type, DEFAULT);
+        }
+        return size;
+    }
+
+    /**
+     * Records the size of a spawned entity if it is larger than any seen for its type so far
+     */
+    public void learn(Entity entity) {
+        double width = entity.getWidth();
+        double height = entity.getHeight();
+        double[] known = learned.get(entity.getType());
+        if (known != null && width <= known[0] && height <= known[1]) {
+            return;
+        }
+        learned.merge(entity.getType(), max(VANILLA.get(entity.getType()), width, height),
+                (current, measured) -> max(current, measured[0], measured[1]));
+    }
+
+    private static double[] max(double[] size, double width, double height) {
+        return size == null
+                ? new double[]{width, height}
+                : new double[]{Math.max(size[0], width), Math.max(size[1], height)};
+    }
+
+    private static void vanilla(EntityType type, double width, double height) {
+        VANILLA.put(type, new double[]{width, height});
+    }
+}
@@ -0,0 +1,18 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.function.Consumer;
+
+/**
+ * Turns one line of an import file into a spawn job. Called from several threads at once.
+ */
+@FunctionalInterface
+public interface ImportLineParser {
+
+    /**
+     * Parses a line into a job for the sender that reports to the given tracker.
+     * Returns null if the line is invalid, after describing the problem to the errors consumer.
+     */
+    SpawnJob parse(String line, CommandSender sender, SpawnTracker tracker, Consumer<String> errors);
+}
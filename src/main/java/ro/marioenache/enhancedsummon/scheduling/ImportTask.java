@@ -0,0 +1,273 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams a newline-delimited file of spawn specs into the spawn queue. A reader thread
+ * reads the file in blocks of lines, which are parsed in parallel on the summon workers.
+ * Parsed jobs wait in a bounded buffer and are handed to the spawn queue a limited number
+ * per tick, so a huge file never floods the queue and the import can be paused at any time.
+ */
+public class ImportTask implements SpawnTracker {
+
+    // Lines read before they are handed to the workers for parsing
+    private static final int BLOCK_LINES = 1024;
+    private static final int PARSE_SLICES = 4;
+    // Errors beyond this are only counted, so a broken file does not flood the sender
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final JavaPlugin plugin;
+    private final SpawnQueue spawnQueue;
+    private final Executor parseExecutor;
+    private final ImportLineParser parser;
+    private final Path file;
+    private final String name;
+    private final CommandSender sender;
+    private final long fileSize;
+    private final int maxJobsPerTick;
+    private final int progressInterval;
+    private final BlockingQueue<SpawnJob> parsedJobs;
+    private final long startNanos = System.nanoTime();
+
+    // Written by the reader thread
+    private volatile int linesRead;
+    private volatile long charsRead;
+    private volatile boolean readingDone;
+    private final AtomicInteger errors = new AtomicInteger();
+
+    // Written by commands, read on the main thread
+    private volatile boolean paused;
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+
+    // Only touched from the main thread
+    private int fed;
+    private int spawned;
+    private int failed;
+    private int ticks;
+    private String lastFailure;
+
+    public ImportTask(JavaPlugin plugin, SpawnQueue spawnQueue, Executor parseExecutor, ImportLineParser parser,
+                      Path file, CommandSender sender) throws IOException {
+        this.plugin = plugin;
+        this.spawnQueue = spawnQueue;
+        this.parseExecutor = parseExecutor;
+        this.parser = parser;
+        this.file = file;
+        this.name = file.getFileName().toString();
+        this.sender = sender;
+        this.fileSize = Files.size(file);
+        this.maxJobsPerTick = Math.max(1, plugin.getConfig().getInt("import.max-jobs-per-tick", 1000));
+        this.progressInterval = plugin.getConfig().getInt("spawning.progress-interval-ticks", 20);
+        this.parsedJobs = new ArrayBlockingQueue<>(Math.max(BLOCK_LINES, plugin.getConfig().getInt("import.buffered-jobs", 8192)));
+    }
+
+    /**
+     * Starts reading the file and feeding the spawn queue
+     */
+    public void start() {
+        spawnQueue.track(this);
+        Thread reader = new Thread(this::read, "EnhancedSummon Import " + name);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    /**
+     * Stops reading and drops the jobs that have not been handed to the spawn queue yet
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Reads the file block by block until it ends or the import is cancelled. Runs on the reader thread.
+     */
+    private void read() {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> block = new ArrayList<>(BLOCK_LINES);
+            int firstLine = 1;
+            String line;
+            while (!cancelled && (line = reader.readLine()) != null) {
+                block.add(line);
+                charsRead += line.length() + 1;
+                if (block.size() == BLOCK_LINES) {
+                    parseBlock(block, firstLine);
+                    firstLine += block.size();
+                    linesRead = firstLine - 1;
+                    block = new ArrayList<>(BLOCK_LINES);
+                }
+            }
+            if (!cancelled && !block.isEmpty()) {
+                parseBlock(block, firstLine);
+                linesRead = firstLine + block.size() - 1;
+            }
+        } catch (IOException e) {
+            sender.sendMessage("§cCould not read " + name + ": " + e.getMessage());
+            plugin.getLogger().warning("Could not read import file " + file + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            sender.sendMessage("§cImport of " + name + " stopped: " + e.getMessage());
+            plugin.getLogger().warning("Error importing " + file + ": " + e.getMessage());
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+        } finally {
+            readingDone = true;
+        }
+    }
+
+    /**
+     * Parses a block of lines in parallel slices, then queues the jobs in file order
+     */
+    private void parseBlock(List<String> block, int firstLine) throws InterruptedException {
+        int sliceSize = (block.size() + PARSE_SLICES - 1) / PARSE_SLICES;
+        List<CompletableFuture<List<SpawnJob>>> slices = new ArrayList<>(PARSE_SLICES);
+        for (int from = 0; from < block.size(); from += sliceSize) {
+            int start = from;
+            int end = Math.min(from + sliceSize, block.size());
+            try {
+                slices.add(CompletableFuture.supplyAsync(() -> parseSlice(block, start, end, firstLine), parseExecutor));
+            } catch (RejectedExecutionException e) {
+                // The workers are busy with commands, parse on the reader thread instead
+                slices.add(CompletableFuture.completedFuture(parseSlice(block, start, end, firstLine)));
+            }
+        }
+
+        for (CompletableFuture<List<SpawnJob>> slice : slices) {
+            for (SpawnJob job : slice.join()) {
+                // Waits while the buffer is full, which is what pauses reading during a paused import
+                while (!parsedJobs.offer(job, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private List<SpawnJob> parseSlice(List<String> block, int start, int end, int firstLine) {
+        List<SpawnJob> jobs = new ArrayList<>(end - start);
+        for (int i = start; i < end && !cancelled; i++) {
+            String line = block.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+
+            int lineNumber = firstLine + i;
+            SpawnJob job = parser.parse(line, sender, this, message -> reportError(lineNumber, message));
+            if (job != null) {
+                jobs.add(job);
+            }
+        }
+        return jobs;
+    }
+
+    private void reportError(int lineNumber, String message) {
+        int count = errors.incrementAndGet();
+        if (count <= MAX_REPORTED_ERRORS) {
+            sender.sendMessage("§cLine " + lineNumber + ": " + message);
+        } else if (count == MAX_REPORTED_ERRORS + 1) {
+            sender.sendMessage("§cFurther errors in " + name + " are only counted");
+        }
+    }
+
+    @Override
+    public void onSpawned(Entity entity) {
+        // Spawns cancelled by other plugins return an entity that never entered the world
+        if (entity == null || !entity.isValid()) {
+            onFailed("the spawn was cancelled");
+            return;
+        }
+        spawned++;
+    }
+
+    @Override
+    public void onFailed(String reason) {
+        if (failed++ == 0) {
+            lastFailure = reason;
+            plugin.getLogger().warning("Error spawning from import " + name + ": " + reason);
+        }
+    }
+
+    /**
+     * Hands parsed jobs to the spawn queue, keeping at most two ticks' worth in flight, and reports progress
+     */
+    @Override
+    public boolean afterTick() {
+        ticks++;
+
+        if (cancelled) {
+            parsedJobs.clear();
+            sender.sendMessage("§eImport of " + name + " cancelled after " + spawned + " spawns");
+            finished = true;
+            return true;
+        }
+
+        if (!paused) {
+            int room = Math.min(maxJobsPerTick, 2 * maxJobsPerTick - (fed - spawned - failed));
+            for (int i = 0; i < room; i++) {
+                SpawnJob job = parsedJobs.poll();
+                if (job == null) {
+                    break;
+                }
+                spawnQueue.submit(job);
+                fed++;
+            }
+        }
+
+        if (readingDone && parsedJobs.isEmpty() && spawned + failed >= fed) {
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+            sender.sendMessage("§aImported " + spawned + " spawns from " + name +
+                    " (" + linesRead + " lines, " + elapsedMillis + " ms)" +
+                    (errors.get() > 0 ? " §c(" + errors.get() + " problems)" : "") +
+                    (failed > 0 ? " §c(" + failed + " failed: " + lastFailure + ")" : ""));
+            finished = true;
+            return true;
+        } else if (progressInterval > 0 && ticks % progressInterval == 0 && !paused) {
+            sender.sendMessage("§7Importing " + name + ": " + spawned + " spawned, " +
+                    linesRead + " lines read (" + getPercentRead() + "%)" +
+                    (errors.get() > 0 ? ", " + errors.get() + " problems" : ""));
+        }
+        return false;
+    }
+
+    /**
+     * Rough share of the file read so far, counting characters against the file size in bytes
+     */
+    private int getPercentRead() {
+        return fileSize > 0 ? (int) Math.min(100, charsRead * 100 / fileSize) : 100;
+    }
+}
@@ -0,0 +1,448 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.api.Placement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds standing positions for safe and surface placement. The blocks around a target are read
+ * from chunk snapshots, so the search runs off the main thread and the main thread only loads
+ * and copies chunks. Snapshots, which carry the chunk's heightmap, are cached per chunk and
+ * dropped when a block in the chunk changes, and after a while in case a change fired no event.
+ */
+public class SafeLocationResolver implements Listener {
+
+    public static final int MAX_RADIUS = 32;
+    // Most chunks one placement may read, so a huge spread cannot copy half the world
+    private static final int MAX_CHUNKS = 512;
+    // Safe placement looks this many blocks above and below the target in every column
+    private static final int VERTICAL_RANGE = 16;
+
+    // Blocks nothing should be spawned in or on
+    private static final Set<Material> HARMFUL = EnumSet.of(
+            Material.LAVA, Material.FIRE, Material.SOUL_FIRE, Material.MAGMA_BLOCK, Material.CACTUS,
+            Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.SWEET_BERRY_BUSH, Material.WITHER_ROSE,
+            Material.POWDER_SNOW, Material.COBWEB, Material.POINTED_DRIPSTONE);
+
+    // Columns within each radius, nearest first
+    private static final Map<Integer, int[][]> OFFSETS = new ConcurrentHashMap<>();
+
+    private final ChunkPreloader chunkPreloader;
+    private final EntityDimensions dimensions;
+    private final int defaultRadius;
+    private final long snapshotTtlNanos;
+    private final Map<ChunkKey, CachedSnapshot> snapshots;
+
+    public SafeLocationResolver(JavaPlugin plugin, ChunkPreloader chunkPreloader, EntityDimensions dimensions) {
+        this.chunkPreloader = chunkPreloader;
+        this.dimensions = dimensions;
+        this.defaultRadius = Math.min(MAX_RADIUS, Math.max(0, plugin.getConfig().getInt("placement.radius", 8)));
+        this.snapshotTtlNanos = TimeUnit.SECONDS.toNanos(plugin.getConfig().getInt("placement.snapshot-ttl-seconds", 30));
+        int maxCached = Math.max(1, plugin.getConfig().getInt("placement.cached-chunks", 256));
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChunkKey, CachedSnapshot> eldest) {
+                return size() > maxCached;
+            }
+        };
+    }
+
+    public int getDefaultRadius() {
+        return defaultRadius;
+    }
+
+    /**
+     * Finds a position for every target, searching up to radius blocks away. Targets are given
+     * different positions while there is room, so a batch spreads out instead of stacking up.
+     * Safe to call from any thread; the search runs on the given executor.
+     *
+     * @return the positions in target order, with null where no position was found
+     */
+    public CompletableFuture<List<Location>> resolve(List<Location> targets, EntityType type, Placement placement,
+                                                     int radius, Executor searchExecutor) {
+        Map<World, List<Integer>> byWorld = new LinkedHashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            byWorld.computeIfAbsent(targets.get(i).getWorld(), ignored -> new ArrayList<>()).add(i);
+        }
+        if (byWorld.size() == 1) {
+            return resolveInWorld(targets, type, placement, radius, searchExecutor);
+        }
+
+        // Targets from selectors can span worlds, search each world on its own and merge the results
+        Location[] found = new Location[targets.size()];
+        List<CompletableFuture<Void>> searches = new ArrayList<>(byWorld.size());
+        for (List<Integer> indexes : byWorld.values()) {
+            List<Location> inWorld = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                inWorld.add(targets.get(index));
+            }
+            searches.add(resolveInWorld(inWorld, type, placement, radius, searchExecutor).thenAccept(positions -> {
+                for (int i = 0; i < indexes.size(); i++) {
+                    found[indexes.get(i)] = positions.get(i);
+                }
+            }));
+        }
+        return CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).thenApply(ignored -> Arrays.asList(found));
+    }
+
+    private CompletableFuture<List<Location>> resolveInWorld(List<Location> targets, EntityType type, Placement placement,
+                                                             int radius, Executor searchExecutor) {
+        World world = targets.get(0).getWorld();
+        double[] size = dimensions.get(type);
+        int reach = radius + (int) Math.ceil(size[0] / 2) + 1;
+
+        Set<Long> needed = new HashSet<>();
+        for (Location target : targets) {
+            for (int chunkX = (target.getBlockX() - reach) >> 4; chunkX <= (target.getBlockX() + reach) >> 4; chunkX++) {
+                for (int chunkZ = (target.getBlockZ() - reach) >> 4; chunkZ <= (target.getBlockZ() + reach) >> 4; chunkZ++) {
+                    needed.add(Chunk.getChunkKey(chunkX, chunkZ));
+                }
+            }
+            if (needed.size() > MAX_CHUNKS) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException(
+                        "the area is too large, placement can check at most " + MAX_CHUNKS + " chunks"));
+            }
+        }
+
+        Map<Long, CompletableFuture<ChunkSnapshot>> pending = new HashMap<>();
+        for (long key : needed) {
+            pending.put(key, getSnapshot(world, (int) key, (int) (key >> 32)));
+        }
+
+        Search search = new Search(world.getMinHeight(), world.getMaxHeight(), size, placement, radius);
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0])).thenApplyAsync(ignored -> {
+            pending.forEach((key, snapshot) -> search.chunks.put(key, snapshot.join()));
+            return search.run(targets);
+        }, searchExecutor);
+    }
+
+    /**
+     * Returns the cached snapshot of a chunk, or loads and copies the chunk on the main thread
+     */
+    private CompletableFuture<ChunkSnapshot> getSnapshot(World world, int chunkX, int chunkZ) {
+        ChunkKey key = new ChunkKey(world.getUID(), Chunk.getChunkKey(chunkX, chunkZ));
+        synchronized (snapshots) {
+            CachedSnapshot cached = snapshots.get(key);
+            if (cached != null && System.nanoTime() - cached.takenNanos < snapshotTtlNanos) {
+                return CompletableFuture.completedFuture(cached.snapshot);
+            }
+        }
+
+        // Cached in the main thread task that copies the chunk, so a block change invalidating it cannot run in between
+        return chunkPreloader.snapshot(world, chunkX, chunkZ, snapshot -> {
+            synchronized (snapshots) {
+                snapshots.put(key, new CachedSnapshot(snapshot));
+            }
+        });
+    }
+
+    private void invalidate(Block block) {
+        invalidate(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    private void invalidate(World world, int chunkX, int chunkZ) {
+        synchronized (snapshots) {
+            if (!snapshots.isEmpty()) {
+                snapshots.remove(new ChunkKey(world.getUID(), Chunk.getChunkKey(chunkX, chunkZ)));
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFlow(BlockFromToEvent event) {
+        invalidate(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        for (Block block : event.getBlocks()) {
+            invalidate(block);
+            invalidate(block.getRelative(event.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        for (Block block : event.getBlocks()) {
+            invalidate(block);
+            invalidate(block.getRelative(event.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        event.blockList().forEach(this::invalidate);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        event.blockList().forEach(this::invalidate);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        UUID world = event.getWorld().getUID();
+        synchronized (snapshots) {
+            snapshots.keySet().removeIf(key -> key.world.equals(world));
+        }
+    }
+
+    /**
+     * Drops every cached snapshot
+     */
+    public void clear() {
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+
+    private static int[][] getOffsets(int radius) {
+        return OFFSETS.computeIfAbsent(radius, ignored -> {
+            List<int[]> offsets = new ArrayList<>();
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    if (dx * dx + dz * dz <= radius * radius) {
+                        offsets.add(new int[]{dx, dz});
+                    }
+                }
+            }
+            offsets.sort(Comparator.comparingInt(offset -> offset[0] * offset[0] + offset[1] * offset[1]));
+            return offsets.toArray(new int[0][]);
+        });
+    }
+
+    /**
+     * One placement search over a fixed set of chunk snapshots. Used by a single thread.
+     */
+    private static class Search {
+
+        private final Map<Long, ChunkSnapshot> chunks = new HashMap<>();
+        private final Set<Long> claimed = new HashSet<>();
+        private final int minY;
+        private final int maxY;
+        private final double width;
+        private final int height;
+        private final Placement placement;
+        private final int[][] offsets;
+
+        private Search(int minY, int maxY, double[] size, Placement placement, int radius) {
+            this.minY = minY;
+            this.maxY = maxY;
+            this.width = size[0];
+            this.height = Math.max(1, (int) Math.ceil(size[1]));
+            this.placement = placement;
+            this.offsets = getOffsets(radius);
+        }
+
+        private List<Location> run(List<Location> targets) {
+            Location[] found = new Location[targets.size()];
+            for (int i = 0; i < found.length; i++) {
+                Location target = targets.get(i);
+                Location position = find(target, true);
+                if (position == null && !claimed.isEmpty()) {
+                    // Out of free spots, let entities share one
+                    position = find(target, false);
+                }
+                if (position != null) {
+                    claimed.add(pack(position.getBlockX(), position.getBlockY(), position.getBlockZ()));
+                }
+                found[i] = position;
+            }
+            return Arrays.asList(found);
+        }
+
+        private Location find(Location target, boolean unclaimedOnly) {
+            int targetX = target.getBlockX();
+            int targetY = target.getBlockY();
+            int targetZ = target.getBlockZ();
+
+            // A safe target that already fits keeps its exact coordinates
+            if (placement == Placement.SAFE && fits(targetX, targetY, targetZ)
+                    && !(unclaimedOnly && claimed.contains(pack(targetX, targetY, targetZ)))) {
+                return target.clone();
+            }
+
+            for (int[] offset : offsets) {
+                int x = targetX + offset[0];
+                int z = targetZ + offset[1];
+                if (placement == Placement.SURFACE) {
+                    ChunkSnapshot chunk = chunks.get(Chunk.getChunkKey(x >> 4, z >> 4));
+                    if (chunk == null) {
+                        continue;
+                    }
+                    int y = chunk.getHighestBlockYAt(x & 15, z & 15) + 1;
+                    if (isFree(x, y, z, unclaimedOnly)) {
+                        return centered(target, x, y, z);
+                    }
+                } else {
+                    // Nearest height first: 0, +1, -1, +2, -2, ...
+                    for (int step = 0; step <= 2 * VERTICAL_RANGE; step++) {
+                        int y = targetY + (step + 1) / 2 * (step % 2 == 0 ? -1 : 1);
+                        if (isFree(x, y, z, unclaimedOnly)) {
+                            return centered(target, x, y, z);
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean isFree(int x, int y, int z, boolean unclaimedOnly) {
+            return !(unclaimedOnly && claimed.contains(pack(x, y, z))) && fits(x, y, z);
+        }
+
+        /**
+         * Whether the entity can stand centered on block x, z with its feet at y: solid ground
+         * below and nothing solid or harmful anywhere in its bounding box
+         */
+        private boolean fits(int x, int y, int z) {
+            if (y + height > maxY) {
+                return false;
+            }
+            Material ground = getType(x, y - 1, z);
+            if (ground == null || !ground.isSolid() || HARMFUL.contains(ground)) {
+                return false;
+            }
+
+            double half = width / 2;
+            int fromX = (int) Math.floor(x + 0.5 - half);
+            int toX = (int) Math.floor(x + 0.5 + half - 1.0E-6);
+            int fromZ = (int) Math.floor(z + 0.5 - half);
+            int toZ = (int) Math.floor(z + 0.5 + half - 1.0E-6);
+            for (int blockY = y; blockY < y + height; blockY++) {
+                for (int blockX = fromX; blockX <= toX; blockX++) {
+                    for (int blockZ = fromZ; blockZ <= toZ; blockZ++) {
+                        Material type = getType(blockX, blockY, blockZ);
+                        if (type == null || type.isSolid() || HARMFUL.contains(type)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Block type from the snapshots, or null outside the world or the snapshotted chunks
+         */
+        private Material getType(int x, int y, int z) {
+            if (y < minY || y >= maxY) {
+                return null;
+            }
+            ChunkSnapshot chunk = chunks.get(Chunk.getChunkKey(x >> 4, z >> 4));
+            return chunk != null ? chunk.getBlockType(x & 15, y, z & 15) : null;
+        }
+
+        private static Location centered(Location target, int x, int y, int z) {
+            Location location = target.clone();
+            location.setX(x + 0.5);
+            location.setY(y);
+            location.setZ(z + 0.5);
+            return location;
+        }
+
+        private static long pack(int x, int y, int z) {
+            return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+        }
+    }
+
+    private static class ChunkKey {
+
+        private final UUID world;
+        private final long chunk;
+
+        private ChunkKey(UUID world, long chunk) {
+            this.world = world;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChunkKey)) {
+                return false;
+            }
+            ChunkKey other = (ChunkKey) o;
+            return chunk == other.chunk && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, chunk);
+        }
+    }
+
+    private static class CachedSnapshot {
+
+        private final ChunkSnapshot snapshot;
+        private final long takenNanos = System.nanoTime();
+
+        private CachedSnapshot(ChunkSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
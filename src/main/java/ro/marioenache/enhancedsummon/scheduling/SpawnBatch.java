@@ -0,0 +1,232 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.commands.SummonOptions;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bulk summon of many copies of a template, at one origin or at each of several targets.
+ * The batch is expanded into spawn jobs that the spawn queue runs chunk by chunk;
+ * the batch only tracks and reports progress.
+ */
+public class SpawnBatch implements SpawnTracker {
+
+    private final JavaPlugin plugin;
+    private final SummonTemplate template;
+    private final Location origin;
+    private final List<Location> origins;
+    private final int total;
+    private final SummonOptions options;
+    private final CommandSender sender;
+    private final CompletableFuture<List<Entity>> result;
+    private final int progressInterval;
+    private final long startNanos = System.nanoTime();
+
+    private int chunkCount;
+    private String lastFailure;
+    private String waitingFor;
+
+    // Only touched from the main thread
+    private int spawned;
+    private int failed;
+    private int ticks;
+    private final List<Entity> entities;
+
+    public SpawnBatch(JavaPlugin plugin, SummonTemplate template, Location origin, SummonOptions options, CommandSender sender) {
+        this(plugin, template, Collections.singletonList(origin), options, sender);
+    }
+
+    /**
+     * Summons count copies at every one of the given origins
+     */
+    public SpawnBatch(JavaPlugin plugin, SummonTemplate template, List<Location> origins, SummonOptions options, CommandSender sender) {
+        this(plugin, template, origins, options, sender, null);
+    }
+
+    /**
+     * Summons count copies at every one of the given origins without messages, completing the
+     * result with the spawned entities instead. It fails if none of them could be spawned.
+     */
+    public SpawnBatch(JavaPlugin plugin, SummonTemplate template, List<Location> origins, SummonOptions options,
+                      CompletableFuture<List<Entity>> result) {
+        this(plugin, template, origins, options, null, result);
+    }
+
+    private SpawnBatch(JavaPlugin plugin, SummonTemplate template, List<Location> origins, SummonOptions options,
+                       CommandSender sender, CompletableFuture<List<Entity>> result) {
+        this.plugin = plugin;
+        this.template = template;
+        this.origins = new ArrayList<>(origins.size());
+        for (Location origin : origins) {
+            this.origins.add(origin.clone());
+        }
+        this.origin = this.origins.get(0);
+        this.total = options.getCount() * origins.size();
+        this.options = options;
+        this.sender = sender;
+        this.result = result;
+        this.entities = result != null ? new ArrayList<>(total) : null;
+        this.progressInterval = plugin.getConfig().getInt("spawning.progress-interval-ticks", 20);
+    }
+
+    /**
+     * Creates one spawn job per entity, computing every spawn location up front
+     */
+    public List<SpawnJob> createJobs() {
+        return createJobs(createLocations(), null);
+    }
+
+    /**
+     * Computes the spawn location of every entity from the offset and spread options
+     */
+    public List<Location> createLocations() {
+        List<Location> locations = new ArrayList<>(total);
+        for (Location from : origins) {
+            for (int i = 0; i < options.getCount(); i++) {
+                locations.add(nextLocation(from, i));
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Creates one spawn job per location. Null locations become jobs that fail with the given reason.
+     */
+    public List<SpawnJob> createJobs(List<Location> locations, String rejection) {
+        List<SpawnJob> jobs = new ArrayList<>(locations.size());
+        Set<Long> chunks = new HashSet<>();
+
+        for (Location location : locations) {
+            if (location == null) {
+                jobs.add(SpawnJob.rejected(template, origin, sender, this, rejection));
+                continue;
+            }
+            chunks.add(Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+            jobs.add(new SpawnJob(template, location, sender, this));
+        }
+
+        chunkCount = chunks.size();
+        return jobs;
+    }
+
+    @Override
+    public void onSpawned(Entity entity) {
+        // Spawns cancelled by other plugins return an entity that never entered the world
+        if (entity == null || !entity.isValid()) {
+            onFailed("the spawn was cancelled");
+            return;
+        }
+        spawned++;
+        if (entities != null) {
+            entities.add(entity);
+        }
+    }
+
+    @Override
+    public void onDeferred(String reason) {
+        waitingFor = reason;
+    }
+
+    @Override
+    public void onFailed(String reason) {
+        if (failed++ == 0) {
+            lastFailure = reason;
+            plugin.getLogger().warning("Error spawning " + template.getDisplayName() + " in batch: " + reason);
+        }
+    }
+
+    @Override
+    public void onDropped() {
+        if (result != null) {
+            result.completeExceptionally(new CancellationException("the spawn queue was stopped"));
+        }
+    }
+
+    /**
+     * Reports progress, and the result once every job of the batch has run
+     */
+    @Override
+    public boolean afterTick() {
+        ticks++;
+
+        if (spawned + failed >= total) {
+            if (result != null) {
+                if (spawned == 0 && failed > 0) {
+                    result.completeExceptionally(new IllegalStateException(lastFailure));
+                } else {
+                    result.complete(entities);
+                }
+                return true;
+            }
+            if (options.isQuiet()) {
+                if (failed > 0) {
+                    sender.sendMessage("§cFailed to spawn " + failed + " of " + total + " " + template.getDisplayName() + ": " + lastFailure);
+                }
+                return true;
+            }
+
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+            sender.sendMessage("§aSpawned " + spawned + " " + template.getDisplayName() +
+                    (origins.size() > 1 ? " at " + origins.size() + " targets" : " in " + origin.getWorld().getName()) +
+                    " across " + chunkCount + (chunkCount == 1 ? " chunk" : " chunks") +
+                    " over " + ticks + (ticks == 1 ? " tick" : " ticks") +
+                    " (" + elapsedMillis + " ms)" +
+                    (failed > 0 ? " §c(" + failed + " failed: " + lastFailure + ")" : ""));
+            return true;
+        } else if (result == null && progressInterval > 0 && ticks % progressInterval == 0 && !options.isQuiet()) {
+            sender.sendMessage("§7Spawning " + template.getDisplayName() + ": " + (spawned + failed) + "/" + total +
+                    (waitingFor != null ? " (waiting: " + waitingFor + ")" : ""));
+            waitingFor = null;
+        }
+        return false;
+    }
+
+    public Location getOrigin() {
+        return origin;
+    }
+
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    /**
+     * Number of entities the batch spawns
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Computes the spawn location of the n-th entity from the offset and spread options
+     */
+    private Location nextLocation(Location from, int index) {
+        Location location = from.clone().add(
+                options.getOffsetX() * index,
+                options.getOffsetY() * index,
+                options.getOffsetZ() * index);
+
+        double spread = options.getSpread();
+        if (spread > 0) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            location.add(random.nextDouble(-spread, spread), 0, random.nextDouble(-spread, spread));
+        }
+        return location;
+    }
+}
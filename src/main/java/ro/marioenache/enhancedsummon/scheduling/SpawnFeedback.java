@@ -0,0 +1,126 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Collects the results of single summons during a tick and tells each sender once per tick,
+ * for example "Spawned 240 ZOMBIE in world_nether (3 failed: ...)". Only counts are kept
+ * while the tick runs; messages are built when they are sent, and not at all for senders
+ * who have left. Only used from the main thread.
+ */
+public class SpawnFeedback {
+
+    private final Map<CommandSender, Map<Key, Outcome>> pending = new LinkedHashMap<>();
+
+    void spawned(SpawnJob job) {
+        Outcome outcome = get(job);
+        outcome.spawned++;
+        outcome.lastLocation = job.getLocation();
+    }
+
+    void failed(SpawnJob job, String reason) {
+        Outcome outcome = get(job);
+        outcome.failed++;
+        outcome.failure = reason;
+    }
+
+    void delayed(SpawnJob job, String reason) {
+        Outcome outcome = get(job);
+        outcome.delayed++;
+        outcome.delay = reason;
+    }
+
+    /**
+     * Sends every sender one message per entity type and world summoned this tick
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<CommandSender, Map<Key, Outcome>> entry : pending.entrySet()) {
+            CommandSender sender = entry.getKey();
+            if (sender instanceof Player && !((Player) sender).isOnline()) {
+                continue;
+            }
+            for (Map.Entry<Key, Outcome> outcome : entry.getValue().entrySet()) {
+                send(sender, outcome.getKey(), outcome.getValue());
+            }
+        }
+        pending.clear();
+    }
+
+    private Outcome get(SpawnJob job) {
+        World world = job.getLocation().getWorld();
+        Key key = new Key(job.getTemplate().getDisplayName(), world != null ? world.getName() : "?");
+        return pending.computeIfAbsent(job.getSender(), ignored -> new LinkedHashMap<>())
+                .computeIfAbsent(key, ignored -> new Outcome());
+    }
+
+    private static void send(CommandSender sender, Key key, Outcome outcome) {
+        if (outcome.spawned == 1 && outcome.failed == 0) {
+            Location location = outcome.lastLocation;
+            sender.sendMessage("§aSuccessfully spawned " + key.type +
+                    " in " + key.world +
+                    " at X:" + location.getX() +
+                    " Y:" + location.getY() +
+                    " Z:" + location.getZ());
+        } else if (outcome.spawned > 0) {
+            sender.sendMessage("§aSpawned " + outcome.spawned + " " + key.type + " in " + key.world +
+                    (outcome.failed > 0 ? " §c(" + outcome.failed + " failed: " + outcome.failure + ")" : ""));
+        } else if (outcome.failed > 0) {
+            sender.sendMessage("§cFailed to spawn " + (outcome.failed > 1 ? outcome.failed + " " : "") +
+                    key.type + ": " + outcome.failure);
+        }
+
+        if (outcome.delayed > 0) {
+            sender.sendMessage("§eSpawning " + (outcome.delayed > 1 ? outcome.delayed + " " : "") +
+                    key.type + " is delayed: " + outcome.delay);
+        }
+    }
+
+    private static class Key {
+
+        private final String type;
+        private final String world;
+
+        private Key(String type, String world) {
+            this.type = type;
+            this.world = world;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type.equals(other.type) && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, world);
+        }
+    }
+
+    private static class Outcome {
+
+        private int spawned;
+        private int failed;
+        private int delayed;
+        private String failure;
+        private String delay;
+        private Location lastLocation;
+    }
+}
@@ -0,0 +1,133 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+
+/**
+ * A single compiled summon that is ready to be spawned on the main thread.
+ * Jobs created by a bulk summon or an import report to their tracker; other jobs report
+ * through the per-tick feedback, which tells the sender once per tick.
+ */
+public class SpawnJob {
+
+    private final SummonTemplate template;
+    private final Location location;
+    private final CommandSender sender;
+    private final SpawnTracker tracker;
+    private final boolean quiet;
+    private final String rejection;
+    private final long queuedNanos = System.nanoTime();
+    private boolean deferred;
+
+    public SpawnJob(SummonTemplate template, Location location, CommandSender sender) {
+        this(template, location, sender, null, false);
+    }
+
+    public SpawnJob(SummonTemplate template, Location location, CommandSender sender, SpawnTracker tracker) {
+        this(template, location, sender, tracker, false);
+    }
+
+    /**
+     * @param quiet whether to skip success and delay messages; failures are always reported
+     */
+    public SpawnJob(SummonTemplate template, Location location, CommandSender sender, SpawnTracker tracker, boolean quiet) {
+        this(template, location, sender, tracker, quiet, null);
+    }
+
+    private SpawnJob(SummonTemplate template, Location location, CommandSender sender, SpawnTracker tracker,
+                     boolean quiet, String rejection) {
+        this.template = template;
+        this.location = location;
+        this.sender = sender;
+        this.tracker = tracker;
+        this.quiet = quiet;
+        this.rejection = rejection;
+    }
+
+    /**
+     * Creates a job that was refused before reaching the spawn queue. The queue reports it
+     * as failed on the main thread, like any other failure.
+     */
+    public static SpawnJob rejected(SummonTemplate template, Location location, CommandSender sender,
+                                    SpawnTracker tracker, String reason) {
+        return new SpawnJob(template, location, sender, tracker, false, reason);
+    }
+
+    /**
+     * Spawns the entity and reports the result. Must be called on the main thread.
+     */
+    Entity run(SpawnFeedback feedback) {
+        Entity entity;
+        try {
+            entity = template.spawn(location);
+        } catch (RuntimeException e) {
+            fail(e.getMessage(), feedback);
+            throw e;
+        }
+
+        if (tracker != null) {
+            tracker.onSpawned(entity);
+        } else if (entity == null || !entity.isValid()) {
+            // Spawns cancelled by other plugins return an entity that never entered the world
+            fail("the spawn was cancelled", feedback);
+        } else if (!quiet) {
+            feedback.spawned(this);
+        }
+        return entity;
+    }
+
+    /**
+     * Reports that this job could not be spawned
+     */
+    void fail(String reason, SpawnFeedback feedback) {
+        if (tracker != null) {
+            tracker.onFailed(reason);
+        } else {
+            feedback.failed(this, reason);
+        }
+    }
+
+    /**
+     * Reports that this job has to wait for a later tick. The sender is only told the first time.
+     */
+    void defer(String reason, SpawnFeedback feedback) {
+        if (tracker != null) {
+            tracker.onDeferred(reason);
+        } else if (!deferred && !quiet) {
+            feedback.delayed(this, reason);
+        }
+        deferred = true;
+    }
+
+    /**
+     * When the job was created, as a {@link System#nanoTime()} value
+     */
+    public long getQueuedNanos() {
+        return queuedNanos;
+    }
+
+    public SummonTemplate getTemplate() {
+        return template;
+    }
+
+    public Location getLocation() {
+        return location;
+    }
+
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    public SpawnTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * Why this job was refused before it was queued, or null if it may spawn
+     */
+    public String getRejection() {
+        return rejection;
+    }
+}
@@ -0,0 +1,105 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+import ro.marioenache.enhancedsummon.api.Placement;
+import ro.marioenache.enhancedsummon.commands.SummonOptions;
+import ro.marioenache.enhancedsummon.templates.SummonTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Turns a compiled summon into spawn jobs. Exact placement queues the jobs right away;
+ * safe and surface placement first look up standing positions from chunk snapshots.
+ */
+public class SpawnPlanner {
+
+    private final JavaPlugin plugin;
+    private final SpawnQueue spawnQueue;
+    private final Executor searchExecutor;
+
+    public SpawnPlanner(JavaPlugin plugin, SpawnQueue spawnQueue, Executor summonExecutor) {
+        this.plugin = plugin;
+        this.spawnQueue = spawnQueue;
+        // A full worker queue fails the search like a full command queue, rather than spilling onto another pool
+        this.searchExecutor = summonExecutor;
+    }
+
+    /**
+     * Queues a summon of template at location using the count, spread, offset and placement options.
+     * Safe to call from any thread.
+     */
+    public void submit(SummonTemplate template, Location location, SummonOptions options, CommandSender sender) {
+        submit(template, Collections.singletonList(location), options, sender);
+    }
+
+    /**
+     * Queues count copies of template at every one of the given locations as a single batch.
+     * Safe to call from any thread.
+     */
+    public void submit(SummonTemplate template, List<Location> locations, SummonOptions options, CommandSender sender) {
+        SpawnBatch batch = options.getCount() > 1 || locations.size() > 1
+                ? new SpawnBatch(plugin, template, locations, options, sender)
+                : null;
+        plan(template, locations.get(0), batch, options, sender, error -> sender.sendMessage(error instanceof RejectedExecutionException
+                ? "§cThe server is busy handling other summons, please try again in a moment."
+                : "§cCould not check the area around the target: " + error.getMessage()));
+    }
+
+    /**
+     * Queues count copies of template at every one of the given locations without sending messages.
+     * Safe to call from any thread.
+     *
+     * @return the spawned entities, completed on the main thread once every spawn has run
+     */
+    public CompletableFuture<List<Entity>> summon(SummonTemplate template, List<Location> locations, SummonOptions options) {
+        CompletableFuture<List<Entity>> result = new CompletableFuture<>();
+        plan(template, locations.get(0), new SpawnBatch(plugin, template, locations, options, result), options, null,
+                result::completeExceptionally);
+        return result;
+    }
+
+    /**
+     * Queues the batch, or a single job at location when batch is null, after resolving placement
+     */
+    private void plan(SummonTemplate template, Location location, SpawnBatch batch, SummonOptions options,
+                      CommandSender sender, Consumer<Throwable> onError) {
+        if (options.getPlacement() == Placement.EXACT) {
+            if (batch != null) {
+                spawnQueue.submit(batch);
+            } else {
+                spawnQueue.submit(new SpawnJob(template, location, sender, null, options.isQuiet()));
+            }
+            return;
+        }
+
+        SafeLocationResolver resolver = spawnQueue.getLocationResolver();
+        int radius = options.getRadius() < 0 ? resolver.getDefaultRadius() : Math.min(options.getRadius(), SafeLocationResolver.MAX_RADIUS);
+        String rejection = (options.getPlacement() == Placement.SURFACE ? "no surface position" : "no safe position") +
+                " within " + radius + (radius == 1 ? " block" : " blocks");
+
+        List<Location> targets = batch != null ? batch.createLocations() : Collections.singletonList(location);
+        resolver.resolve(targets, template.getEntityType(), options.getPlacement(), radius, searchExecutor)
+                .whenComplete((positions, error) -> {
+                    if (error != null) {
+                        onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                        return;
+                    }
+                    if (batch != null) {
+                        spawnQueue.submit(batch, batch.createJobs(positions, rejection));
+                    } else if (positions.get(0) != null) {
+                        spawnQueue.submit(new SpawnJob(template, positions.get(0), sender, null, options.isQuiet()));
+                    } else {
+                        spawnQueue.submit(SpawnJob.rejected(template, location, sender, null, rejection));
+                    }
+                });
+    }
+}
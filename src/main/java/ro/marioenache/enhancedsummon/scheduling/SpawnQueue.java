@@ -0,0 +1,357 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import ro.marioenache.enhancedsummon.metrics.SummonMetrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects ready-to-spawn jobs from any thread and spawns them from a single
+ * repeating main-thread task, so a summon never needs its own scheduler task.
+ * Pending jobs are grouped by chunk: each chunk is loaded once and everything
+ * targeting it is spawned together.
+ */
+public class SpawnQueue {
+
+    private final JavaPlugin plugin;
+    private final long budgetNanos;
+    private final ChunkPreloader chunkPreloader;
+    private final AdmissionController admissionController;
+    private final EntityDimensions dimensions = new EntityDimensions();
+    private final SafeLocationResolver locationResolver;
+    private final SummonMetrics metrics;
+    private final SpawnFeedback feedback = new SpawnFeedback();
+    private final Queue<SpawnJob> incomingJobs = new ConcurrentLinkedQueue<>();
+    private final Queue<SpawnTracker> incomingTrackers = new ConcurrentLinkedQueue<>();
+
+    // Only touched from the main thread
+    private final Map<World, Map<Long, ChunkGroup>> groups = new HashMap<>();
+    private final ArrayDeque<ChunkGroup> readyGroups = new ArrayDeque<>();
+    private final List<SpawnTracker> activeTrackers = new ArrayList<>();
+    private int loadingGroups;
+    private int groupedJobs;
+    private int lastDrainJobs;
+    private int lastDrainChunks;
+    private long lastDrainNanos;
+    private BukkitTask task;
+
+    public SpawnQueue(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.budgetNanos = (long) (plugin.getConfig().getDouble("spawning.tick-budget-ms", 5.0) * 1_000_000L);
+        this.chunkPreloader = new ChunkPreloader(plugin);
+        this.admissionController = new AdmissionController(plugin);
+        this.locationResolver = new SafeLocationResolver(plugin, chunkPreloader, dimensions);
+        this.metrics = new SummonMetrics(plugin.getConfig().getBoolean("metrics.jfr-events", false));
+    }
+
+    /**
+     * Starts the drain task, which runs once every tick
+     */
+    public void start() {
+        if (task == null) {
+            Bukkit.getPluginManager().registerEvents(admissionController, plugin);
+            Bukkit.getPluginManager().registerEvents(locationResolver, plugin);
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops the drain task. Jobs that have not been spawned yet are dropped.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+            HandlerList.unregisterAll(admissionController);
+            HandlerList.unregisterAll(locationResolver);
+        }
+        incomingJobs.clear();
+        for (SpawnTracker tracker : incomingTrackers) {
+            tracker.onDropped();
+        }
+        for (SpawnTracker tracker : activeTrackers) {
+            tracker.onDropped();
+        }
+        incomingTrackers.clear();
+        groups.clear();
+        readyGroups.clear();
+        activeTrackers.clear();
+        groupedJobs = 0;
+        chunkPreloader.releaseAll();
+        locationResolver.clear();
+    }
+
+    /**
+     * Queues a single spawn. Safe to call from any thread.
+     */
+    public void submit(SpawnJob job) {
+        incomingJobs.add(job);
+    }
+
+    /**
+     * Queues every spawn of a bulk summon. Safe to call from any thread.
+     */
+    public void submit(SpawnBatch batch) {
+        submit(batch, batch.createJobs());
+    }
+
+    /**
+     * Queues the given jobs of a bulk summon. Safe to call from any thread.
+     */
+    public void submit(SpawnBatch batch, List<SpawnJob> jobs) {
+        incomingTrackers.add(batch);
+        incomingJobs.addAll(jobs);
+    }
+
+    /**
+     * Calls the tracker at the end of every tick until it reports that it is finished.
+     * Safe to call from any thread.
+     */
+    public void track(SpawnTracker tracker) {
+        incomingTrackers.add(tracker);
+    }
+
+    public SummonMetrics getMetrics() {
+        return metrics;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public SafeLocationResolver getLocationResolver() {
+        return locationResolver;
+    }
+
+    public int getPendingJobs() {
+        return incomingJobs.size();
+    }
+
+    /**
+     * Sorts newly queued jobs into their chunk groups, then spawns the jobs of loaded
+     * chunks within the tick budget. Whatever does not fit is spawned on the next tick.
+     */
+    private void drain() {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        admissionController.tick();
+
+        SpawnTracker tracker;
+        while ((tracker = incomingTrackers.poll()) != null) {
+            activeTrackers.add(tracker);
+        }
+
+        SpawnJob job;
+        while ((job = incomingJobs.poll()) != null) {
+            if (job.getRejection() != null) {
+                metrics.recordFailed(job.getTemplate().getDisplayName());
+                job.fail(job.getRejection(), feedback);
+            } else {
+                addToGroup(job);
+            }
+        }
+
+        // Always spawn at least one job per tick so tiny budgets still make progress
+        int jobs = 0;
+        int handled = 0;
+        int chunks = 0;
+        ChunkGroup current = null;
+        while (!readyGroups.isEmpty() && (handled == 0 || System.nanoTime() < deadline)) {
+            ChunkGroup group = readyGroups.peek();
+
+            // Spawning waits while the summon rate limit is used up
+            if (admissionController.isWindowFull()) {
+                SpawnJob waiting = group.jobs.peek();
+                if (waiting != null) {
+                    waiting.defer("the summon rate limit has been reached", feedback);
+                }
+                admissionController.onDeferred();
+                break;
+            }
+
+            if (group != current) {
+                current = group;
+                chunks++;
+            }
+
+            SpawnJob next = group.jobs.poll();
+            if (next != null) {
+                handled++;
+                groupedJobs--;
+                String rejection = admissionController.check(group.world, group.key);
+                if (rejection != null) {
+                    metrics.recordFailed(next.getTemplate().getDisplayName());
+                    next.fail(rejection, feedback);
+                } else {
+                    Entity entity = runJob(next);
+                    if (entity != null) {
+                        admissionController.onSummoned(entity, group.key);
+                    }
+                    jobs++;
+                }
+            }
+
+            if (group.jobs.isEmpty()) {
+                readyGroups.poll();
+                removeGroup(group);
+                chunkPreloader.release(group.world, group.chunkX, group.chunkZ);
+            }
+        }
+
+        Iterator<SpawnTracker> iterator = activeTrackers.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().afterTick()) {
+                iterator.remove();
+            }
+        }
+        feedback.flush();
+
+        if (jobs > 0) {
+            lastDrainJobs = jobs;
+            lastDrainChunks = chunks;
+            lastDrainNanos = System.nanoTime() - start;
+        }
+    }
+
+    private Entity runJob(SpawnJob job) {
+        String type = job.getTemplate().getDisplayName();
+        long start = System.nanoTime();
+        try {
+            Entity entity = job.run(feedback);
+            long end = System.nanoTime();
+            metrics.record(SummonMetrics.Stage.SPAWN, type, end - start);
+            metrics.record(SummonMetrics.Stage.END_TO_END, type, end - job.getQueuedNanos());
+            metrics.recordSpawned(type);
+            if (entity != null) {
+                dimensions.learn(entity);
+            }
+            return entity;
+        } catch (Exception e) {
+            metrics.recordFailed(type);
+            plugin.getLogger().warning("Error spawning " + job.getTemplate().getDisplayName() + ": " + e.getMessage());
+            if (job.getTracker() == null) {
+                e.printStackTrace();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Adds a job to the group of its target chunk, loading the chunk if this is the first job for it
+     */
+    private void addToGroup(SpawnJob job) {
+        metrics.record(SummonMetrics.Stage.QUEUE_WAIT, System.nanoTime() - job.getQueuedNanos());
+        groupedJobs++;
+
+        World world = job.getLocation().getWorld();
+        int chunkX = job.getLocation().getBlockX() >> 4;
+        int chunkZ = job.getLocation().getBlockZ() >> 4;
+        long key = Chunk.getChunkKey(chunkX, chunkZ);
+
+        Map<Long, ChunkGroup> worldGroups = groups.computeIfAbsent(world, ignored -> new HashMap<>());
+        ChunkGroup group = worldGroups.get(key);
+        if (group != null) {
+            group.jobs.add(job);
+            return;
+        }
+
+        ChunkGroup created = new ChunkGroup(world, chunkX, chunkZ, key);
+        created.jobs.add(job);
+        worldGroups.put(key, created);
+        loadingGroups++;
+
+        long loadStart = System.nanoTime();
+        chunkPreloader.acquire(world, chunkX, chunkZ).whenComplete((loaded, error) -> {
+            loadingGroups--;
+            metrics.record(SummonMetrics.Stage.CHUNK_LOAD, System.nanoTime() - loadStart);
+            if (Boolean.TRUE.equals(loaded)) {
+                readyGroups.add(created);
+            } else {
+                removeGroup(created);
+                groupedJobs -= created.jobs.size();
+                String reason = error != null
+                        ? "could not load the target chunk (" + error.getMessage() + ")"
+                        : "the target chunk at X:" + (chunkX << 4) + " Z:" + (chunkZ << 4) + " in " + world.getName() + " has not been generated yet";
+                for (SpawnJob failed : created.jobs) {
+                    metrics.recordFailed(failed.getTemplate().getDisplayName());
+                    failed.fail(reason, feedback);
+                }
+            }
+        });
+    }
+
+    private void removeGroup(ChunkGroup group) {
+        Map<Long, ChunkGroup> worldGroups = groups.get(group.world);
+        if (worldGroups != null && worldGroups.remove(group.key, group) && worldGroups.isEmpty()) {
+            groups.remove(group.world);
+        }
+    }
+
+    /**
+     * Number of jobs sorted into chunk groups that have not spawned yet, including jobs
+     * waiting for their chunk to load. Only accurate on the main thread.
+     */
+    public int getQueuedJobs() {
+        return groupedJobs;
+    }
+
+    /**
+     * Number of chunks with pending spawns, including chunks that are still loading
+     */
+    public int getPendingChunks() {
+        return readyGroups.size() + loadingGroups;
+    }
+
+    /**
+     * Number of jobs spawned by the last tick that spawned anything
+     */
+    public int getLastDrainJobs() {
+        return lastDrainJobs;
+    }
+
+    /**
+     * Number of chunks spawned into by the last tick that spawned anything
+     */
+    public int getLastDrainChunks() {
+        return lastDrainChunks;
+    }
+
+    /**
+     * Time taken by the last tick that spawned anything, in nanoseconds
+     */
+    public long getLastDrainNanos() {
+        return lastDrainNanos;
+    }
+
+    /**
+     * Jobs targeting one chunk
+     */
+    private static class ChunkGroup {
+
+        private final World world;
+        private final int chunkX;
+        private final int chunkZ;
+        private final long key;
+        private final Queue<SpawnJob> jobs = new ArrayDeque<>();
+
+        private ChunkGroup(World world, int chunkX, int chunkZ, long key) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.key = key;
+        }
+    }
+}
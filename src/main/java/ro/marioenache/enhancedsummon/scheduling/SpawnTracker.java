@@ -0,0 +1,39 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.entity.Entity;
+
+/**
+ * Follows the jobs of a bulk operation, such as a batch or an import, so it can report
+ * on them as a whole instead of per spawn. All methods are called on the main thread.
+ */
+public interface SpawnTracker {
+
+    /**
+     * Called after one of the tracked jobs spawned its entity
+     */
+    void onSpawned(Entity entity);
+
+    /**
+     * Called after one of the tracked jobs could not be spawned
+     */
+    void onFailed(String reason);
+
+    /**
+     * Called when the tracked jobs have to wait for a later tick, for example because of a summon limit
+     */
+    default void onDeferred(String reason) {
+    }
+
+    /**
+     * Called when the spawn queue stops before the operation finished; its remaining jobs are dropped
+     */
+    default void onDropped() {
+    }
+
+    /**
+     * Called by the spawn queue at the end of every tick
+     *
+     * @return true once the operation is finished and no longer needs to be called
+     */
+    boolean afterTick();
+}
@@ -0,0 +1,177 @@
+package ro.marioenache.enhancedsummon.scheduling;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded executor for parsing and compiling summon commands off the main thread.
+ * Work beyond the configured queue depth is rejected instead of piling up.
+ */
+public class SummonExecutor implements Executor {
+
+    private final JavaPlugin plugin;
+    private final ExecutorService delegate;
+    private final boolean virtualThreads;
+    private final int queueSize;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    public SummonExecutor(JavaPlugin plugin) {
+        this.plugin = plugin;
+        int threads = Math.max(1, plugin.getConfig().getInt("executor.threads", 2));
+        this.queueSize = Math.max(1, plugin.getConfig().getInt("executor.queue-size", 1000));
+
+        ExecutorService virtualExecutor = null;
+        if (plugin.getConfig().getBoolean("executor.virtual-threads", false)) {
+            virtualExecutor = createVirtualThreadExecutor();
+        }
+
+        if (virtualExecutor != null) {
+            // Virtual threads are unbounded by nature, so cap in-flight work with permits
+            this.delegate = virtualExecutor;
+            this.virtualThreads = true;
+            this.permits = new Semaphore(queueSize);
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize), new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+            // Let idle workers exit, so a quiet server holds no summon threads
+            pool.allowCoreThreadTimeOut(true);
+            this.delegate = pool;
+            this.virtualThreads = false;
+            this.permits = null;
+        }
+    }
+
+    /**
+     * Runs a task on a summon worker
+     *
+     * @throws RejectedExecutionException if the queue is full or the executor was shut down
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (permits != null && !permits.tryAcquire()) {
+            reject();
+        }
+
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.increment();
+                    if (permits != null) {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+            reject();
+        }
+    }
+
+    private void reject() {
+        rejected.increment();
+        long total = rejected.sum();
+        if (total == 1 || total % 1000 == 0) {
+            plugin.getLogger().warning("Summon executor is saturated, rejected " + total + " commands so far (" + getStatsSummary() + ")");
+        }
+        throw new RejectedExecutionException("Summon queue is full");
+    }
+
+    /**
+     * Stops accepting work and waits briefly for running tasks to finish
+     */
+    public void shutdown() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(2, TimeUnit.SECONDS)) {
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getActiveWorkers() {
+        return active.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public String getStatsSummary() {
+        return "queued " + getQueueDepth() + "/" + queueSize +
+                ", active " + getActiveWorkers() +
+                ", completed " + getCompleted() +
+                ", rejected " + getRejected() +
+                (virtualThreads ? ", virtual threads" : "");
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor through reflection, as the plugin targets Java 17.
+     * Returns null when the running JVM does not support virtual threads.
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Virtual threads require Java 21, falling back to a platform thread pool");
+            return null;
+        }
+    }
+
+    /**
+     * Names summon worker threads so they are recognizable in thread dumps and profilers
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "EnhancedSummon Worker #" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
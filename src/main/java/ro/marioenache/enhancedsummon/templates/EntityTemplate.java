@@ -0,0 +1,68 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import ro.marioenache.enhancedsummon.metrics.SummonMetrics;
+import ro.marioenache.enhancedsummon.properties.BoundProperty;
+
+/**
+ * Compiled entity payload: the entity type plus the flat array of properties to apply.
+ * Properties are applied before the entity is added to the world, so clients receive
+ * a single complete spawn packet.
+ */
+public class EntityTemplate implements SummonTemplate {
+
+    private final EntityType entityType;
+    private final BoundProperty[] properties;
+    private final SummonMetrics metrics;
+
+    public EntityTemplate(EntityType entityType, BoundProperty[] properties, SummonMetrics metrics) {
+        this.entityType = entityType;
+        this.properties = properties.clone();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates a template that spawns the entity without any properties
+     */
+    public static EntityTemplate empty(EntityType entityType) {
+        return new EntityTemplate(entityType, new BoundProperty[0], null);
+    }
+
+    @Override
+    public Entity spawn(Location location) {
+        Class<? extends Entity> entityClass = entityType.getEntityClass();
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Cannot spawn entity of type " + entityType);
+        }
+        return location.getWorld().spawn(location, entityClass, this::applyProperties);
+    }
+
+    /**
+     * Applies every compiled property to an entity that has not been added to the world yet
+     */
+    private void applyProperties(Entity entity) {
+        if (properties.length == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (BoundProperty property : properties) {
+            property.apply(entity);
+        }
+        if (metrics != null) {
+            metrics.record(SummonMetrics.Stage.PROPERTIES, entityType.toString(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String getDisplayName() {
+        return entityType.toString();
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return entityType;
+    }
+}
@@ -0,0 +1,222 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Reads an item payload straight from the command string into an {@link ItemSpec} in a single pass,
+ * without building a JSON tree for the whole payload. Only text values are kept as small trees.
+ */
+public class ItemPayloadReader {
+
+    /**
+     * Reads an item payload, either a bare item or one wrapped in an "Item" object
+     *
+     * @throws JsonSyntaxException if the payload is not valid JSON or has an unexpected shape
+     */
+    public ItemSpec read(String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.setLenient(true);
+
+            ItemSpec root = new ItemSpec();
+            ItemSpec wrapped = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("Item") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    // Vanilla format wraps the item, in which case the other root keys don't matter
+                    wrapped = new ItemSpec();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        readItemKey(reader, reader.nextName(), wrapped);
+                    }
+                    reader.endObject();
+                } else {
+                    readItemKey(reader, name, root);
+                }
+            }
+            reader.endObject();
+
+            return wrapped != null ? wrapped : root;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e.getMessage(), e);
+        }
+    }
+
+    private void readItemKey(JsonReader reader, String name, ItemSpec spec) throws IOException {
+        switch (name) {
+            case "id":
+                spec.setId(reader.nextString());
+                break;
+            case "Count":
+            case "count":
+                spec.setCount(reader.nextInt());
+                break;
+            case "components":
+                spec.setComponents(true);
+                readComponents(reader, spec);
+                break;
+            case "tag":
+                spec.setTag(true);
+                readTag(reader, spec);
+                break;
+            default:
+                reader.skipValue();
+                break;
+        }
+    }
+
+    private void readComponents(JsonReader reader, ItemSpec spec) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "custom_name":
+                    spec.setCustomName(readText(reader));
+                    break;
+                case "enchantments":
+                    readEnchantmentsComponent(reader, spec);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readEnchantmentsComponent(JsonReader reader, ItemSpec spec) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "levels":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String enchantment = reader.nextName();
+                        spec.getEnchantments().put(enchantment, reader.nextInt());
+                    }
+                    reader.endObject();
+                    break;
+                case "show_in_tooltip":
+                    spec.setShowEnchantments(readFlag(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readTag(JsonReader reader, ItemSpec spec) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "display":
+                    readDisplay(reader, spec);
+                    break;
+                case "Enchantments":
+                case "ench":
+                    readTagEnchantments(reader, spec);
+                    break;
+                case "HideFlags":
+                    spec.setHideFlags(reader.nextInt());
+                    break;
+                case "Unbreakable":
+                    spec.setUnbreakable(readFlag(reader));
+                    break;
+                case "CustomModelData":
+                    spec.setCustomModelData(reader.nextInt());
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readDisplay(JsonReader reader, ItemSpec spec) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "Name":
+                    spec.setDisplayName(readText(reader));
+                    break;
+                case "Lore":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        spec.addLore(readText(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readTagEnchantments(JsonReader reader, ItemSpec spec) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+
+            String id = "minecraft:protection";
+            int level = 1;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        id = reader.nextString();
+                        break;
+                    case "lvl":
+                        level = reader.nextInt();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            spec.getTagEnchantments().put(id, level);
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads a text value. Strings are kept as-is, even if they contain an embedded
+     * text component; those are only decoded when the item is built.
+     */
+    private JsonElement readText(JsonReader reader) throws IOException {
+        return JsonParser.parseReader(reader);
+    }
+
+    /**
+     * Reads a boolean in any of the formats Minecraft commands use: true/false, 1/0 or 1b/0b
+     */
+    private boolean readFlag(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER:
+                return reader.nextDouble() != 0;
+            case STRING:
+                String value = reader.nextString();
+                return !(value.equals("0b") || value.equals("false") || value.equals("0"));
+            default:
+                reader.skipValue();
+                return false;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import com.google.gson.JsonElement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Item payload as read from JSON, before any Bukkit types are involved.
+ * Text values are kept as they appear in the payload and only decoded when the item is built.
+ */
+public class ItemSpec {
+
+    private String id;
+    private int count = 1;
+
+    // Components format (Minecraft 1.20.5+)
+    private boolean components;
+    private JsonElement customName;
+    private final Map<String, Integer> enchantments = new LinkedHashMap<>();
+    private Boolean showEnchantments;
+
+    // Legacy tag format
+    private boolean tag;
+    private JsonElement displayName;
+    private List<JsonElement> lore;
+    private final Map<String, Integer> tagEnchantments = new LinkedHashMap<>();
+    private int hideFlags;
+    private Boolean unbreakable;
+    private Integer customModelData;
+
+    public String getId() {
+        return id;
+    }
+
+    void setId(String id) {
+        this.id = id;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    void setCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * Whether the payload has a components section. Legacy tag data is ignored when it does.
+     */
+    public boolean hasComponents() {
+        return components;
+    }
+
+    void setComponents(boolean components) {
+        this.components = components;
+    }
+
+    public JsonElement getCustomName() {
+        return customName;
+    }
+
+    void setCustomName(JsonElement customName) {
+        this.customName = customName;
+    }
+
+    /**
+     * Enchantment levels from the components section, keyed by enchantment id as written in the payload
+     */
+    public Map<String, Integer> getEnchantments() {
+        return enchantments;
+    }
+
+    public Boolean getShowEnchantments() {
+        return showEnchantments;
+    }
+
+    void setShowEnchantments(Boolean showEnchantments) {
+        this.showEnchantments = showEnchantments;
+    }
+
+    public boolean hasTag() {
+        return tag;
+    }
+
+    void setTag(boolean tag) {
+        this.tag = tag;
+    }
+
+    public JsonElement getDisplayName() {
+        return displayName;
+    }
+
+    void setDisplayName(JsonElement displayName) {
+        this.displayName = displayName;
+    }
+
+    public List<JsonElement> getLore() {
+        return lore;
+    }
+
+    void addLore(JsonElement line) {
+        if (lore == null) {
+            lore = new ArrayList<>();
+        }
+        lore.add(line);
+    }
+
+    /**
+     * Enchantment levels from the legacy tag, keyed by enchantment id as written in the payload
+     */
+    public Map<String, Integer> getTagEnchantments() {
+        return tagEnchantments;
+    }
+
+    public int getHideFlags() {
+        return hideFlags;
+    }
+
+    void setHideFlags(int hideFlags) {
+        this.hideFlags = hideFlags;
+    }
+
+    public Boolean getUnbreakable() {
+        return unbreakable;
+    }
+
+    void setUnbreakable(Boolean unbreakable) {
+        this.unbreakable = unbreakable;
+    }
+
+    public Integer getCustomModelData() {
+        return customModelData;
+    }
+
+    void setCustomModelData(Integer customModelData) {
+        this.customModelData = customModelData;
+    }
+}
@@ -0,0 +1,35 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.Vector;
+
+/**
+ * Compiled item payload: a prototype ItemStack that is cloned for every drop
+ */
+public class ItemTemplate implements SummonTemplate {
+
+    private final ItemStack prototype;
+
+    public ItemTemplate(ItemStack prototype) {
+        this.prototype = prototype.clone();
+    }
+
+    @Override
+    public Entity spawn(Location location) {
+        // Prevent the item from flying away, before it is added to the world
+        return location.getWorld().dropItem(location, prototype.clone(), item -> item.setVelocity(new Vector(0, 0, 0)));
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "item";
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.ITEM;
+    }
+}
@@ -0,0 +1,35 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntitySnapshot;
+import org.bukkit.entity.EntityType;
+
+/**
+ * Copy of an existing entity, captured once with {@link Entity#createSnapshot()}.
+ * Every spawn creates the entity straight from the snapshot's full NBT, so nothing
+ * is replayed through JSON and no state is lost.
+ */
+public class SnapshotTemplate implements SummonTemplate {
+
+    private final EntitySnapshot snapshot;
+
+    public SnapshotTemplate(EntitySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Entity spawn(Location location) {
+        return snapshot.createEntity(location);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return snapshot.getEntityType().toString();
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return snapshot.getEntityType();
+    }
+}
@@ -0,0 +1,26 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+/**
+ * A summon payload compiled once into an immutable form that can be spawned repeatedly
+ */
+public interface SummonTemplate {
+
+    /**
+     * Spawns a new entity from this template. Must be called on the main thread.
+     */
+    Entity spawn(Location location);
+
+    /**
+     * Name used in feedback messages, such as the entity type
+     */
+    String getDisplayName();
+
+    /**
+     * Type of the entity this template spawns
+     */
+    EntityType getEntityType();
+}
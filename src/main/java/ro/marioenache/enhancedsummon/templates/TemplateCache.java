@@ -0,0 +1,145 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache for compiled summon templates, keyed by the normalized JSON payload
+ */
+public class TemplateCache<T> {
+
+    private final int maxSize;
+    private final Map<String, T> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TemplateCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > TemplateCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached template for the key, compiling it on a miss.
+     * A compiler returning null is treated as a failure and nothing is cached.
+     */
+    public T get(String key, Function<String, T> compiler) {
+        synchronized (entries) {
+            T cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        // Compile outside the lock so slow payloads don't block other lookups
+        misses.increment();
+        T compiled = compiler.apply(key);
+        if (compiled != null) {
+            synchronized (entries) {
+                entries.put(key, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Removes the cached template for one key
+     */
+    public void invalidate(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes all cached templates. The hit and miss counters keep counting.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Resets the hit and miss counters
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Normalizes a JSON payload into a cache key by dropping whitespace around structural
+     * characters outside string literals, so payloads that only differ in spacing share one template
+     */
+    public static String normalize(String json) {
+        if (json == null) {
+            return "";
+        }
+
+        String trimmed = json.trim();
+        StringBuilder result = new StringBuilder(trimmed.length());
+        char quote = 0;
+        boolean escaped = false;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (quote != 0) {
+                result.append(c);
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                // Whitespace between two literals is significant for lenient parsing, so keep it
+                int next = i + 1;
+                while (next < trimmed.length() && Character.isWhitespace(trimmed.charAt(next))) {
+                    next++;
+                }
+                boolean afterStructural = result.length() == 0 || isStructural(result.charAt(result.length() - 1));
+                boolean beforeStructural = next >= trimmed.length() || isStructural(trimmed.charAt(next));
+                if (!afterStructural && !beforeStructural) {
+                    result.append(' ');
+                }
+                i = next - 1;
+            } else {
+                if (c == '"' || c == '\'') {
+                    quote = c;
+                }
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static boolean isStructural(char c) {
+        return c == '{' || c == '}' || c == '[' || c == ']' || c == ',' || c == ':';
+    }
+}
@@ -1,101 +1,120 @@
 package ro.marioenache.enhancedsummon.utils;
 
+import io.papermc.paper.event.server.ServerResourcesReloadedEvent;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
 import org.bukkit.enchantments.Enchantment;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Utility class for mapping Minecraft enchantment IDs to Bukkit Enchantment enum values
+ * Maps enchantment ids to Bukkit enchantments using an index built from {@link Registry#ENCHANTMENT},
+ * so datapack and custom enchantments are found as well. Ids can be namespaced ("minecraft:sharpness")
+ * or bare ("sharpness"). The index is rebuilt when the server reloads its datapacks.
  */
-public class EnchantmentMapper {
-    
-    private final Map<String, Enchantment> enchantmentMap;
-    
+public class EnchantmentMapper implements Listener {
+
+    // Only kept so spellings that vanilla has renamed keep working
+    private static final Map<String, String> LEGACY_ALIASES = Map.of(
+            "sweeping", "minecraft:sweeping_edge"
+    );
+
+    private volatile Index index;
+
     public EnchantmentMapper() {
-        this.enchantmentMap = createEnchantmentMap();
+        rebuild();
     }
-    
+
     /**
-     * Maps a Minecraft enchantment ID to a Bukkit Enchantment
+     * Maps an enchantment id, namespaced or not, to a Bukkit Enchantment.
+     * Returns null if no such enchantment is registered.
      */
     public Enchantment getEnchantmentByName(String name) {
-        // Try to get enchantment by map
-        Enchantment enchantment = enchantmentMap.get(name.toLowerCase());
-        if (enchantment != null) {
-            return enchantment;
-        }
-        
-        // Fallback: try direct name match
-        try {
-            String bukkitName = name.toUpperCase().replace(":", "_");
-            return Enchantment.getByName(bukkitName);
-        } catch (Exception e) {
-            return null;
-        }
+        return index.lookup.get(name);
+    }
+
+    /**
+     * Namespaced ids of every registered enchantment
+     */
+    public List<String> getKeys() {
+        return index.keys;
+    }
+
+    /**
+     * Keys of every registered enchantment without their namespace
+     */
+    public List<String> getBareKeys() {
+        return index.bareKeys;
+    }
+
+    /**
+     * Changes every time the index is rebuilt, so anything built from it can be invalidated
+     */
+    public int getVersion() {
+        return index.version;
+    }
+
+    /**
+     * Rebuilds the index from the enchantment registry
+     */
+    public void rebuild() {
+        Index previous = index;
+        index = new Index(previous != null ? previous.version + 1 : 0);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onResourcesReloaded(ServerResourcesReloadedEvent event) {
+        rebuild();
     }
-    
+
     /**
-     * Creates a map of Minecraft enchantment names to Bukkit Enchantment values
+     * Immutable snapshot of the registry, swapped in as a whole on rebuild
      */
-    private Map<String, Enchantment> createEnchantmentMap() {
-        Map<String, Enchantment> map = new HashMap<>();
-        
-        // Protection enchantments
-        map.put("protection", Enchantment.PROTECTION);
-        map.put("fire_protection", Enchantment.FIRE_PROTECTION);
-        map.put("feather_falling", Enchantment.FEATHER_FALLING);
-        map.put("blast_protection", Enchantment.BLAST_PROTECTION);
-        map.put("projectile_protection", Enchantment.PROJECTILE_PROTECTION);
-        map.put("respiration", Enchantment.RESPIRATION);
-        map.put("aqua_affinity", Enchantment.AQUA_AFFINITY);
-        map.put("thorns", Enchantment.THORNS);
-        map.put("depth_strider", Enchantment.DEPTH_STRIDER);
-        map.put("frost_walker", Enchantment.FROST_WALKER);
-        map.put("binding_curse", Enchantment.BINDING_CURSE);
-        
-        // Weapon enchantments
-        map.put("sharpness", Enchantment.SHARPNESS);
-        map.put("smite", Enchantment.SMITE);
-        map.put("bane_of_arthropods", Enchantment.BANE_OF_ARTHROPODS);
-        map.put("knockback", Enchantment.KNOCKBACK);
-        map.put("fire_aspect", Enchantment.FIRE_ASPECT);
-        map.put("looting", Enchantment.LOOTING);
-        map.put("sweeping", Enchantment.SWEEPING_EDGE);
-        
-        // Tool enchantments
-        map.put("efficiency", Enchantment.EFFICIENCY);
-        map.put("silk_touch", Enchantment.SILK_TOUCH);
-        map.put("unbreaking", Enchantment.UNBREAKING);
-        map.put("fortune", Enchantment.FORTUNE);
-        
-        // Bow enchantments
-        map.put("power", Enchantment.POWER);
-        map.put("punch", Enchantment.PUNCH);
-        map.put("flame", Enchantment.FLAME);
-        map.put("infinity", Enchantment.INFINITY);
-        
-        // Fishing rod enchantments
-        map.put("luck_of_the_sea", Enchantment.LUCK_OF_THE_SEA);
-        map.put("lure", Enchantment.LURE);
-        
-        // Trident enchantments
-        map.put("loyalty", Enchantment.LOYALTY);
-        map.put("impaling", Enchantment.IMPALING);
-        map.put("riptide", Enchantment.RIPTIDE);
-        map.put("channeling", Enchantment.CHANNELING);
-        
-        // Crossbow enchantments
-        map.put("multishot", Enchantment.MULTISHOT);
-        map.put("quick_charge", Enchantment.QUICK_CHARGE);
-        map.put("piercing", Enchantment.PIERCING);
-        
-        // Other enchantments
-        map.put("mending", Enchantment.MENDING);
-        map.put("vanishing_curse", Enchantment.VANISHING_CURSE);
-        map.put("soul_speed", Enchantment.SOUL_SPEED);
-        map.put("swift_sneak", Enchantment.SWIFT_SNEAK);
-        
-        return map;
+    private static final class Index {
+
+        private final int version;
+        private final KeyIndex<Enchantment> lookup;
+        private final List<String> keys;
+        private final List<String> bareKeys;
+
+        private Index(int version) {
+            this.version = version;
+
+            Map<String, Enchantment> map = new HashMap<>();
+            List<String> namespaced = new ArrayList<>();
+            List<String> bare = new ArrayList<>();
+            for (Enchantment enchantment : Registry.ENCHANTMENT) {
+                NamespacedKey key = enchantment.getKey();
+                map.put(key.toString(), enchantment);
+                namespaced.add(key.toString());
+
+                // A bare key belongs to the vanilla enchantment if there is one, otherwise to the first registered
+                Enchantment existing = map.get(key.getKey());
+                if (existing == null) {
+                    bare.add(key.getKey());
+                }
+                if (existing == null || key.getNamespace().equals(NamespacedKey.MINECRAFT)) {
+                    map.put(key.getKey(), enchantment);
+                }
+            }
+
+            for (Map.Entry<String, String> alias : LEGACY_ALIASES.entrySet()) {
+                Enchantment enchantment = map.get(alias.getValue());
+                if (enchantment != null) {
+                    map.putIfAbsent(alias.getKey(), enchantment);
+                }
+            }
+
+            this.lookup = new KeyIndex<>(map);
+            this.keys = Collections.unmodifiableList(namespaced);
+            this.bareKeys = Collections.unmodifiableList(bare);
+        }
     }
-}
\ No newline at end of file
+}
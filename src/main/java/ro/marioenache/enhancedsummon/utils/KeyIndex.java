@@ -0,0 +1,67 @@
+package ro.marioenache.enhancedsummon.utils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable lookup of values by id, such as "minecraft:sharpness" or "diamond_sword".
+ * Ids written the canonical way (lower case, underscores) are a single map lookup with no
+ * allocation. Other spellings are normalized once and remembered, and unknown ids are kept
+ * in a negative cache, so repeated lookups never normalize again. Safe to use from any thread.
+ */
+public final class KeyIndex<T> {
+
+    // Upper bound for the lookups that needed normalizing and for the ids that are not known at all
+    private static final int MAX_CACHED_LOOKUPS = 1024;
+
+    private final Map<String, T> byKey;
+    private final Map<String, T> normalizedLookups = new ConcurrentHashMap<>();
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+
+    public KeyIndex(Map<String, T> byKey) {
+        this.byKey = new HashMap<>(byKey);
+    }
+
+    /**
+     * Returns the value for an id in any case or spacing, or null if there is none
+     */
+    public T get(String id) {
+        T value = byKey.get(id);
+        if (value != null) {
+            return value;
+        }
+
+        value = normalizedLookups.get(id);
+        if (value != null || misses.contains(id)) {
+            return value;
+        }
+
+        value = byKey.get(normalize(id));
+        if (value != null) {
+            if (normalizedLookups.size() >= MAX_CACHED_LOOKUPS) {
+                normalizedLookups.clear();
+            }
+            normalizedLookups.put(id, value);
+        } else {
+            if (misses.size() >= MAX_CACHED_LOOKUPS) {
+                misses.clear();
+            }
+            misses.add(id);
+        }
+        return value;
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    /**
+     * Brings an id to the canonical form: trimmed, lower case, underscores instead of spaces
+     */
+    public static String normalize(String id) {
+        return id.trim().toLowerCase(Locale.ROOT).replace(' ', '_');
+    }
+}
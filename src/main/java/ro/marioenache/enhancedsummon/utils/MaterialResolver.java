@@ -0,0 +1,50 @@
+package ro.marioenache.enhancedsummon.utils;
+
+import org.bukkit.Material;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves item ids to materials from a precomputed index, without going through
+ * {@link Material#valueOf(String)} and its exception for unknown ids. Accepts namespaced
+ * ("minecraft:diamond_sword") and bare ("diamond_sword") ids in any case, as well as the
+ * old names of renamed items.
+ */
+public class MaterialResolver {
+
+    // Items renamed by vanilla, by their old id
+    private static final Map<String, String> LEGACY_ALIASES = Map.of(
+            "grass", "short_grass",
+            "scute", "turtle_scute"
+    );
+
+    private final KeyIndex<Material> index;
+
+    public MaterialResolver() {
+        Map<String, Material> byKey = new HashMap<>();
+        for (Material material : Material.values()) {
+            if (material.isLegacy()) {
+                continue;
+            }
+            byKey.put(material.getKey().getKey(), material);
+            byKey.put(material.getKey().toString(), material);
+        }
+
+        for (Map.Entry<String, String> alias : LEGACY_ALIASES.entrySet()) {
+            Material material = byKey.get(alias.getValue());
+            if (material != null) {
+                byKey.putIfAbsent(alias.getKey(), material);
+                byKey.putIfAbsent("minecraft:" + alias.getKey(), material);
+            }
+        }
+        this.index = new KeyIndex<>(byKey);
+    }
+
+    /**
+     * Resolves an item id to its material. Returns null if no material has that id.
+     */
+    public Material resolve(String id) {
+        return index.get(id);
+    }
+}
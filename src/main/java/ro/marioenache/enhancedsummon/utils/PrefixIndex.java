@@ -0,0 +1,79 @@
+package ro.marioenache.enhancedsummon.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, case-insensitively sorted set of completion candidates.
+ * Prefix lookups use binary search and only allocate the result list.
+ */
+public final class PrefixIndex {
+
+    private final String[] values;
+
+    public PrefixIndex(Collection<String> values) {
+        this.values = values.stream()
+                .distinct()
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Returns every candidate starting with the prefix, ignoring case
+     */
+    public List<String> complete(String prefix) {
+        return complete(prefix, "", "");
+    }
+
+    /**
+     * Returns every candidate starting with the prefix, ignoring case, wrapped in the given text.
+     * Used to complete a value in the middle of a larger argument, such as a key inside JSON.
+     */
+    public List<String> complete(String prefix, String before, String after) {
+        int start = lowerBound(prefix);
+        int end = start;
+        while (end < values.length && values[end].regionMatches(true, 0, prefix, 0, prefix.length())) {
+            end++;
+        }
+        if (start == end) {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add(before.isEmpty() && after.isEmpty() ? values[i] : before + values[i] + after);
+        }
+        return result;
+    }
+
+    /**
+     * Whether the index contains the value, ignoring case
+     */
+    public boolean contains(String value) {
+        int index = lowerBound(value);
+        return index < values.length && values[index].equalsIgnoreCase(value);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Index of the first value that is not smaller than the key
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(values[middle], key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,102 @@
+package ro.marioenache.enhancedsummon.utils;
+
+import com.google.gson.JsonElement;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns JSON text components into Adventure components, keeping colors (including hex),
+ * styles, translations and nested extras intact. Results are memoized by the raw JSON,
+ * since the same names and lore blocks are summoned over and over. Entity names and item
+ * names and lore share one parser, see {@link #shared()}. Safe to use from any thread.
+ */
+public class TextComponentParser {
+
+    private static final int DEFAULT_CACHE_SIZE = 512;
+    private static final TextComponentParser SHARED = new TextComponentParser();
+
+    // Least recently used first, guarded by itself
+    private final Map<String, Component> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile int maxSize;
+
+    public TextComponentParser() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public TextComponentParser(int cacheSize) {
+        this.maxSize = Math.max(1, cacheSize);
+    }
+
+    /**
+     * The parser used for every text value in summon payloads
+     */
+    public static TextComponentParser shared() {
+        return SHARED;
+    }
+
+    /**
+     * Changes how many parsed texts are kept, dropping the least recently used ones beyond it
+     */
+    public void setCacheSize(int cacheSize) {
+        maxSize = Math.max(1, cacheSize);
+        synchronized (cache) {
+            trim();
+        }
+    }
+
+    /**
+     * Parses a text value: a text component object or array, a string holding one,
+     * or a plain string, which may use legacy § color codes
+     */
+    public Component parse(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return Component.empty();
+        }
+        String raw = element.isJsonPrimitive() ? element.getAsString() : element.toString();
+        return parse(raw);
+    }
+
+    /**
+     * Parses raw text, which is either a serialized text component or a plain string
+     */
+    public Component parse(String raw) {
+        synchronized (cache) {
+            Component cached = cache.get(raw);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Parse outside the lock so long components don't block other lookups
+        Component parsed = deserialize(raw);
+        synchronized (cache) {
+            cache.put(raw, parsed);
+            trim();
+        }
+        return parsed;
+    }
+
+    private void trim() {
+        Iterator<Component> eldest = cache.values().iterator();
+        for (int excess = cache.size() - maxSize; excess > 0; excess--) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private Component deserialize(String raw) {
+        if (raw.startsWith("{") || raw.startsWith("[") || raw.startsWith("\"")) {
+            try {
+                return GsonComponentSerializer.gson().deserialize(raw);
+            } catch (RuntimeException e) {
+                // Not a valid component, show it as typed
+            }
+        }
+        return LegacyComponentSerializer.legacySection().deserialize(raw);
+    }
+}
@@ -0,0 +1,49 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the import line parser up to the world lookup, which needs a running server
+ */
+class ImportCommandTest {
+
+    private final ImportCommand parser = new ImportCommand(null, null, null, null, null);
+
+    @Test
+    void rejectsMalformedJson() {
+        assertError("Invalid JSON", "not json");
+        assertError("Invalid JSON", "{\"entity\":\"zombie\",\"x\":\"east\"}");
+        assertError("Invalid JSON", "{\"entity\":\"zombie\"");
+    }
+
+    @Test
+    void requiresEntityWorldAndCoordinates() {
+        assertError("Each line needs entity, world, x, y and z", "{\"entity\":\"zombie\",\"world\":\"world\",\"x\":1,\"y\":2}");
+        assertError("Each line needs entity, world, x, y and z", "{\"world\":\"world\",\"x\":1,\"y\":2,\"z\":3}");
+    }
+
+    @Test
+    void rejectsUnknownEntityTypes() {
+        assertError("Invalid entity type: dragonfly", "{\"entity\":\"dragonfly\",\"world\":\"world\",\"x\":1,\"y\":2,\"z\":3}");
+    }
+
+    @Test
+    void skipsUnknownKeysAndAcceptsLenientJson() {
+        // Gets past reading the line to the entity type check
+        assertError("Invalid entity type: dragonfly", "{entity:dragonfly,note:{a:[1,2]},world:world,x:1,y:2,z:3,data:{CustomName:'Guard'}}");
+    }
+
+    private void assertError(String expected, String line) {
+        List<String> errors = new ArrayList<>();
+        assertNull(parser.parse(line, null, null, errors::add));
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).startsWith(expected), errors.get(0));
+    }
+}
@@ -0,0 +1,83 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonCursorTest {
+
+    @Test
+    void emptyKeyAfterOpeningBrace() {
+        JsonCursor cursor = JsonCursor.of("{");
+        assertEquals(JsonCursor.Position.KEY, cursor.getPosition());
+        assertEquals("", cursor.getParentKey());
+        assertEquals("", cursor.getPartial());
+    }
+
+    @Test
+    void quotedKey() {
+        JsonCursor cursor = JsonCursor.of("{\"Custom");
+        assertEquals(JsonCursor.Position.KEY, cursor.getPosition());
+        assertEquals("Custom", cursor.getPartial());
+        assertTrue(cursor.isQuoted());
+    }
+
+    @Test
+    void unquotedKey() {
+        JsonCursor cursor = JsonCursor.of("{Glowing:true,Cust");
+        assertEquals(JsonCursor.Position.KEY, cursor.getPosition());
+        assertEquals("Cust", cursor.getPartial());
+        assertFalse(cursor.isQuoted());
+    }
+
+    @Test
+    void keyInNestedObject() {
+        JsonCursor cursor = JsonCursor.of("{\"components\":{\"custom_");
+        assertEquals(JsonCursor.Position.KEY, cursor.getPosition());
+        assertEquals("components", cursor.getParentKey());
+        assertEquals("custom_", cursor.getPartial());
+    }
+
+    @Test
+    void valueOfKey() {
+        JsonCursor cursor = JsonCursor.of("{\"id\":\"minecraft:dia");
+        assertEquals(JsonCursor.Position.VALUE, cursor.getPosition());
+        assertEquals("id", cursor.getKey());
+        assertEquals("", cursor.getParentKey());
+        assertEquals("minecraft:dia", cursor.getPartial());
+        assertTrue(cursor.isQuoted());
+    }
+
+    @Test
+    void emptyValueInsideArrayOfObjects() {
+        JsonCursor cursor = JsonCursor.of("{\"Enchantments\":[{\"id\":");
+        assertEquals(JsonCursor.Position.VALUE, cursor.getPosition());
+        assertEquals("Enchantments", cursor.getParentKey());
+        assertEquals("id", cursor.getKey());
+        assertEquals("", cursor.getPartial());
+    }
+
+    @Test
+    void keyAfterClosedNestedObject() {
+        JsonCursor cursor = JsonCursor.of("{\"display\":{\"Name\":\"a\"},\"Hi");
+        assertEquals(JsonCursor.Position.KEY, cursor.getPosition());
+        assertEquals("", cursor.getParentKey());
+        assertEquals("Hi", cursor.getPartial());
+    }
+
+    @Test
+    void ignoresStructuralCharactersInStrings() {
+        JsonCursor cursor = JsonCursor.of("{\"CustomName\":\"{a:[b\",\"Glo");
+        assertEquals(JsonCursor.Position.KEY, cursor.getPosition());
+        assertEquals("", cursor.getParentKey());
+        assertEquals("Glo", cursor.getPartial());
+    }
+
+    @Test
+    void nothingAfterTheClosingBrace() {
+        assertEquals(JsonCursor.Position.NONE, JsonCursor.of("{\"a\":1}").getPosition());
+        assertEquals(JsonCursor.Position.NONE, JsonCursor.of("").getPosition());
+    }
+}
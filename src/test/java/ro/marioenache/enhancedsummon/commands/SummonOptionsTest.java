@@ -0,0 +1,108 @@
+package ro.marioenache.enhancedsummon.commands;
+
+import org.junit.jupiter.api.Test;
+import ro.marioenache.enhancedsummon.api.Placement;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SummonOptionsTest {
+
+    @Test
+    void defaults() {
+        SummonOptions options = SummonOptions.parse(new String[]{"zombie"});
+        assertEquals(1, options.getCount());
+        assertEquals(0, options.getSpread());
+        assertEquals(Placement.EXACT, options.getPlacement());
+        assertEquals(-1, options.getRadius());
+        assertFalse(options.isQuiet());
+        assertArrayEquals(new String[]{"zombie"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void extractsFlagsAnywhereBeforeThePayload() {
+        SummonOptions options = SummonOptions.parse(new String[]{
+                "zombie", "count=5", "world", "1", "-q", "2", "3", "spread=2.5", "offset=1,-2,0.5", "place=Safe", "radius=8"});
+        assertEquals(5, options.getCount());
+        assertEquals(2.5, options.getSpread());
+        assertEquals(1, options.getOffsetX());
+        assertEquals(-2, options.getOffsetY());
+        assertEquals(0.5, options.getOffsetZ());
+        assertEquals(Placement.SAFE, options.getPlacement());
+        assertEquals(8, options.getRadius());
+        assertTrue(options.isQuiet());
+        assertArrayEquals(new String[]{"zombie", "world", "1", "2", "3"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void leavesThePayloadAlone() {
+        SummonOptions options = SummonOptions.parse(new String[]{"zombie", "count=2", "{\"CustomName\":", "\"count=3\"}", "-q"});
+        assertEquals(2, options.getCount());
+        assertFalse(options.isQuiet());
+        assertArrayEquals(new String[]{"zombie", "{\"CustomName\":", "\"count=3\"}", "-q"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void neverReadsTheFirstArgumentAsAFlag() {
+        SummonOptions options = SummonOptions.parse(new String[]{"count=5"});
+        assertEquals(1, options.getCount());
+        assertArrayEquals(new String[]{"count=5"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void keepsUnknownKeys() {
+        SummonOptions options = SummonOptions.parse(new String[]{"zombie", "color=red"});
+        assertArrayEquals(new String[]{"zombie", "color=red"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void joinsSelectorsSplitAtSpaces() {
+        SummonOptions options = SummonOptions.parse(new String[]{"zombie", "@e[type=cow,", "distance=..5]", "count=2"});
+        assertEquals(2, options.getCount());
+        assertArrayEquals(new String[]{"zombie", "@e[type=cow, distance=..5]"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void doesNotReadFlagsInsideSelectors() {
+        SummonOptions options = SummonOptions.parse(new String[]{"zombie", "@e[limit=1,", "count=3]"});
+        assertEquals(1, options.getCount());
+        assertArrayEquals(new String[]{"zombie", "@e[limit=1, count=3]"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void keepsAnUnclosedSelectorTogether() {
+        SummonOptions options = SummonOptions.parse(new String[]{"zombie", "@e[type=cow,", "count=2"});
+        assertEquals(1, options.getCount());
+        assertArrayEquals(new String[]{"zombie", "@e[type=cow, count=2"}, options.getRemainingArgs());
+    }
+
+    @Test
+    void rejectsInvalidFlagValues() {
+        assertMessage("Count must be at least 1", "count=0");
+        assertMessage("Invalid count: many", "count=many");
+        assertMessage("Spread cannot be negative", "spread=-1");
+        assertMessage("Offset must be in the form offset=<x>,<y>,<z>", "offset=1,2");
+        assertMessage("Invalid offset: a", "offset=a,0,0");
+        assertMessage("Placement must be exact, safe or surface", "place=nowhere");
+        assertMessage("Radius cannot be negative", "radius=-4");
+    }
+
+    @Test
+    void recognizesFlagsWithoutCheckingValues() {
+        assertTrue(SummonOptions.isFlag("-q"));
+        assertTrue(SummonOptions.isFlag("COUNT=x"));
+        assertTrue(SummonOptions.isFlag("place="));
+        assertFalse(SummonOptions.isFlag("color=red"));
+        assertFalse(SummonOptions.isFlag("=5"));
+        assertFalse(SummonOptions.isFlag("world"));
+    }
+
+    private static void assertMessage(String message, String flag) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SummonOptions.parse(new String[]{"zombie", flag}));
+        assertEquals(message, e.getMessage());
+    }
+}
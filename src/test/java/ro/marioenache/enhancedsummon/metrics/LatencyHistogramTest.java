@@ -0,0 +1,76 @@
+package ro.marioenache.enhancedsummon.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(2, histogram.getPercentile(50));
+        assertEquals(3, histogram.getPercentile(100));
+        assertEquals(2, histogram.getMean());
+        assertEquals(3, histogram.getMax());
+    }
+
+    @Test
+    void percentileIsTheUpperBoundOfItsBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.record(2000);
+        // 1000 falls in the last quarter of 512..1023
+        assertEquals(1023, histogram.getPercentile(50));
+        // Never reported above the largest recorded value
+        assertEquals(2000, histogram.getPercentile(100));
+        assertEquals(1500, histogram.getMean());
+    }
+
+    @Test
+    void bucketsStayWithinAQuarterOfTheValue() {
+        for (long value = 4; value < Long.MAX_VALUE / 4; value = value * 3 + 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+            long bound = histogram.getPercentile(50);
+            assertTrue(bound >= value, value + " reported as " + bound);
+            assertTrue(bound - value <= value / 4, value + " reported as " + bound);
+        }
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test
+    void reset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(5000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+}
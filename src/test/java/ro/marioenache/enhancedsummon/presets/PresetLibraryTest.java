@@ -0,0 +1,127 @@
+package ro.marioenache.enhancedsummon.presets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresetLibraryTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void missingFileIsAnEmptyLibrary() throws IOException {
+        Path file = folder.resolve("presets.dat");
+        PresetLibrary library = PresetLibrary.open(file, 4);
+        assertEquals(0, library.size());
+        assertNull(library.get("guard"));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void savedPresetsSurviveReopening() throws IOException {
+        Path file = folder.resolve("presets.dat");
+        PresetLibrary library = PresetLibrary.open(file, 4);
+        library.save(new Preset("guard", "ZOMBIE", "{\"CustomName\":\"Guard\"}"));
+        library.save(new Preset("cow", "COW", ""));
+        library.close();
+
+        library = PresetLibrary.open(file, 4);
+        assertEquals(List.of("cow", "guard"), library.getNames());
+        Preset guard = library.get("guard");
+        assertEquals("ZOMBIE", guard.getEntityType());
+        assertEquals("{\"CustomName\":\"Guard\"}", guard.getJson());
+        assertEquals("", library.get("cow").getJson());
+        library.close();
+    }
+
+    @Test
+    void replacesAndDeletes() throws IOException {
+        Path file = folder.resolve("presets.dat");
+        PresetLibrary library = PresetLibrary.open(file, 4);
+        library.save(new Preset("guard", "ZOMBIE", "{\"CustomName\":\"Guard\"}"));
+        assertEquals("{\"CustomName\":\"Guard\"}", library.get("guard").getJson());
+        library.save(new Preset("guard", "SKELETON", "{\"CustomName\":\"Archer\"}"));
+        assertEquals("SKELETON", library.get("guard").getEntityType());
+        library.save(new Preset("cow", "COW", ""));
+        assertTrue(library.delete("cow"));
+        assertFalse(library.delete("cow"));
+        library.close();
+
+        library = PresetLibrary.open(file, 4);
+        assertEquals(List.of("guard"), library.getNames());
+        assertEquals("{\"CustomName\":\"Archer\"}", library.get("guard").getJson());
+        assertFalse(library.contains("cow"));
+        library.close();
+    }
+
+    @Test
+    void dropsDataAppendedAfterTheIndex() throws IOException {
+        Path file = folder.resolve("presets.dat");
+        PresetLibrary library = PresetLibrary.open(file, 4);
+        library.save(new Preset("guard", "ZOMBIE", "{}"));
+        library.close();
+        long size = Files.size(file);
+
+        // What a save that crashed before moving the header pointer leaves behind
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7}), size);
+        }
+
+        library = PresetLibrary.open(file, 4);
+        assertEquals(size, Files.size(file));
+        assertEquals("{}", library.get("guard").getJson());
+        library.save(new Preset("cow", "COW", "{\"Age\":-1}"));
+        library.close();
+
+        library = PresetLibrary.open(file, 4);
+        assertEquals(List.of("cow", "guard"), library.getNames());
+        assertEquals("{\"Age\":-1}", library.get("cow").getJson());
+        library.close();
+    }
+
+    @Test
+    void compactsOnceDeadSpaceOutweighsLiveData() throws IOException {
+        Path file = folder.resolve("presets.dat");
+        String large = "x".repeat(600_000);
+        PresetLibrary library = PresetLibrary.open(file, 4);
+        library.save(new Preset("guard", "ZOMBIE", "{}"));
+        for (int i = 0; i < 5; i++) {
+            library.save(new Preset("large", "COW", large + i));
+        }
+
+        // Five copies were appended, but only the live one and the space below the threshold remain
+        assertTrue(Files.size(file) < 3 * 600_000, "file is " + Files.size(file) + " bytes");
+        assertFalse(Files.exists(folder.resolve("presets.dat.tmp")));
+        assertEquals(large + 4, library.get("large").getJson());
+        assertEquals("{}", library.get("guard").getJson());
+        library.save(new Preset("cow", "COW", ""));
+        library.close();
+
+        library = PresetLibrary.open(file, 4);
+        assertEquals(List.of("cow", "guard", "large"), library.getNames());
+        assertEquals(large + 4, library.get("large").getJson());
+        assertEquals("{}", library.get("guard").getJson());
+        library.close();
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = folder.resolve("presets.dat");
+        Files.write(file, "not a preset library at all".getBytes());
+        assertThrows(IOException.class, () -> PresetLibrary.open(file, 4));
+    }
+}
@@ -0,0 +1,89 @@
+package ro.marioenache.enhancedsummon.templates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TemplateCacheTest {
+
+    @Test
+    void normalizeDropsWhitespaceAroundStructuralCharacters() {
+        assertEquals("{\"a\":1,\"b\":[1,2]}", TemplateCache.normalize("  { \"a\" : 1 ,\n \"b\": [ 1, 2 ] } "));
+    }
+
+    @Test
+    void normalizeKeepsWhitespaceInsideStrings() {
+        assertEquals("{\"name\":\"a  b\",'c':' d '}", TemplateCache.normalize("{ \"name\": \"a  b\", 'c': ' d ' }"));
+        assertEquals("{\"q\":\"say \\\" hi \"}", TemplateCache.normalize("{ \"q\" : \"say \\\" hi \" }"));
+    }
+
+    @Test
+    void normalizeKeepsOneSpaceBetweenLiterals() {
+        assertEquals("{a:b c}", TemplateCache.normalize("{ a : b   c }"));
+    }
+
+    @Test
+    void normalizeTreatsNullAsEmpty() {
+        assertEquals("", TemplateCache.normalize(null));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        TemplateCache<String> cache = new TemplateCache<>(2);
+        List<String> compiled = new ArrayList<>();
+        cache.get("a", key -> compile(key, compiled));
+        cache.get("b", key -> compile(key, compiled));
+        cache.get("a", key -> compile(key, compiled));
+        cache.get("c", key -> compile(key, compiled));
+
+        assertEquals(2, cache.size());
+        assertEquals(List.of("a", "b", "c"), compiled);
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+
+        // b was the least recently used entry, so only b has to be compiled again
+        cache.get("a", key -> compile(key, compiled));
+        cache.get("b", key -> compile(key, compiled));
+        assertEquals(List.of("a", "b", "c", "b"), compiled);
+    }
+
+    @Test
+    void doesNotCacheFailedCompiles() {
+        TemplateCache<String> cache = new TemplateCache<>(4);
+        assertNull(cache.get("broken", key -> null));
+        assertEquals(0, cache.size());
+        assertEquals("fixed", cache.get("broken", key -> "fixed"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidateRemovesOneKey() {
+        TemplateCache<String> cache = new TemplateCache<>(4);
+        cache.get("a", key -> key);
+        cache.get("b", key -> key);
+        cache.invalidate("a");
+        assertEquals(1, cache.size());
+        assertEquals("new", cache.get("a", key -> "new"));
+        assertEquals("b", cache.get("b", key -> "new"));
+    }
+
+    @Test
+    void resetCountersKeepsEntries() {
+        TemplateCache<String> cache = new TemplateCache<>(4);
+        cache.get("a", key -> key);
+        cache.get("a", key -> key);
+        cache.resetCounters();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    private static String compile(String key, List<String> compiled) {
+        compiled.add(key);
+        return key.toUpperCase();
+    }
+}
@@ -0,0 +1,57 @@
+package ro.marioenache.enhancedsummon.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeyIndexTest {
+
+    private final KeyIndex<Integer> index = new KeyIndex<>(Map.of("sharpness", 1, "fire_aspect", 2));
+
+    @Test
+    void findsCanonicalIds() {
+        assertEquals(1, index.get("sharpness"));
+        assertEquals(2, index.get("fire_aspect"));
+    }
+
+    @Test
+    void findsOtherSpellings() {
+        assertEquals(1, index.get(" Sharpness "));
+        assertEquals(2, index.get("Fire Aspect"));
+        // Served from the remembered lookup the second time
+        assertEquals(2, index.get("Fire Aspect"));
+    }
+
+    @Test
+    void unknownIdsStayUnknown() {
+        assertNull(index.get("Unbreaking"));
+        assertNull(index.get("Unbreaking"));
+        assertNull(index.get("unbreaking"));
+    }
+
+    @Test
+    void negativeCacheDoesNotHideKnownIds() {
+        assertNull(index.get("Sharp"));
+        assertEquals(1, index.get("SHARPNESS"));
+        assertNull(index.get("Sharp"));
+    }
+
+    @Test
+    void keepsWorkingPastTheCacheBound() {
+        for (int i = 0; i < 5000; i++) {
+            assertNull(index.get("Missing " + i));
+            assertEquals(1, index.get("Sharpness"));
+        }
+        assertNull(index.get("Missing 0"));
+        assertEquals(2, index.get("FIRE ASPECT"));
+    }
+
+    @Test
+    void normalize() {
+        assertEquals("fire_aspect", KeyIndex.normalize("  Fire Aspect "));
+        assertEquals("minecraft:sharpness", KeyIndex.normalize("MINECRAFT:SHARPNESS"));
+    }
+}
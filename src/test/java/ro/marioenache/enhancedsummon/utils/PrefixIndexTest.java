@@ -0,0 +1,58 @@
+package ro.marioenache.enhancedsummon.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = new PrefixIndex(List.of("zombie", "Zoglin", "cow", "COD", "cow"));
+
+    @Test
+    void completesIgnoringCase() {
+        assertEquals(List.of("Zoglin", "zombie"), index.complete("zo"));
+        assertEquals(List.of("Zoglin", "zombie"), index.complete("ZO"));
+        assertEquals(List.of("zombie"), index.complete("zom"));
+    }
+
+    @Test
+    void emptyPrefixReturnsEverythingSorted() {
+        assertEquals(List.of("COD", "cow", "Zoglin", "zombie"), index.complete(""));
+    }
+
+    @Test
+    void noMatches() {
+        assertEquals(List.of(), index.complete("x"));
+        assertEquals(List.of(), index.complete("zombies"));
+        assertEquals(List.of(), index.complete("a"));
+    }
+
+    @Test
+    void wrapsMatches() {
+        assertEquals(List.of("{\"COD\":", "{\"cow\":"), index.complete("co", "{\"", "\":"));
+    }
+
+    @Test
+    void dropsDuplicates() {
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void containsIgnoringCase() {
+        assertTrue(index.contains("ZOMBIE"));
+        assertTrue(index.contains("cod"));
+        assertFalse(index.contains("zom"));
+        assertFalse(index.contains("zzz"));
+    }
+
+    @Test
+    void emptyIndex() {
+        PrefixIndex empty = new PrefixIndex(List.of());
+        assertEquals(List.of(), empty.complete(""));
+        assertFalse(empty.contains("a"));
+    }
+}